@@ -0,0 +1,80 @@
+package ru.noties.ccf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ru.noties.ccf.CCFAnimator;
+
+/**
+ * Bulk evaluation of large arrays of fractions (`getColors`) compared to a `getColor` call per fraction
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+    @Param({"1024", "65536"})
+    public int length;
+
+    private CCFAnimator mRgb;
+    private CCFAnimator mArgb;
+
+    private float[] mFractions;
+    private int[] mOut;
+
+    @Setup
+    public void setup() {
+
+        mRgb = CCFAnimator.rgb(0xFF03a9f4, 0xFF009688);
+        mArgb = CCFAnimator.argb(0x8003a9f4, 0xFF009688);
+
+        final Random random = new Random(42L);
+        mFractions = new float[length];
+        for (int i = 0; i < length; i++) {
+            mFractions[i] = random.nextFloat();
+        }
+
+        mOut = new int[length];
+    }
+
+    @Benchmark
+    public int[] rgbBulk() {
+        mRgb.getColors(mFractions, mOut);
+        return mOut;
+    }
+
+    @Benchmark
+    public int[] rgbScalar() {
+        final float[] fractions = mFractions;
+        final int[] out = mOut;
+        for (int i = 0, length = fractions.length; i < length; i++) {
+            out[i] = mRgb.getColor(fractions[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public int[] argbBulk() {
+        mArgb.getColors(mFractions, mOut);
+        return mOut;
+    }
+
+    @Benchmark
+    public int[] argbScalar() {
+        final float[] fractions = mFractions;
+        final int[] out = mOut;
+        for (int i = 0, length = fractions.length; i < length; i++) {
+            out[i] = mArgb.getColor(fractions[i]);
+        }
+        return out;
+    }
+}
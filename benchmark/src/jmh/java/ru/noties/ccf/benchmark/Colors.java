@@ -0,0 +1,30 @@
+package ru.noties.ccf.benchmark;
+
+import java.util.Random;
+
+abstract class Colors {
+
+    // power of 2, so next fraction is picked with a mask
+    static final int FRACTIONS_LENGTH = 1024;
+
+    static int[] randomColors(int length) {
+        final Random random = new Random(42L);
+        final int[] colors = new int[length];
+        for (int i = 0; i < length; i++) {
+            colors[i] = random.nextInt();
+        }
+        return colors;
+    }
+
+    // random fractions, so JIT cannot fold evaluation & branches are not perfectly predicted
+    static float[] randomFractions() {
+        final Random random = new Random(42L);
+        final float[] fractions = new float[FRACTIONS_LENGTH];
+        for (int i = 0; i < FRACTIONS_LENGTH; i++) {
+            fractions[i] = random.nextFloat();
+        }
+        return fractions;
+    }
+
+    private Colors() {}
+}
@@ -0,0 +1,118 @@
+package ru.noties.ccf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.noties.ccf.CCFAnimator;
+
+/**
+ * Single `getColor` call of concatenated animators with different number of segments
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ConcatBenchmark {
+
+    @Param({"2", "10", "100"})
+    public int segments;
+
+    private CCFAnimator mArgb;
+    private CCFAnimator mHsv;
+    private CCFAnimator mMixed;
+    private CCFAnimator mNested;
+
+    private CCFAnimator mArgbCompiled;
+    private CCFAnimator mMixedCompiled;
+    private CCFAnimator mNestedCompiled;
+
+    private float[] mFractions;
+    private int mIndex;
+
+    @Setup
+    public void setup() {
+
+        final int[] colors = Colors.randomColors(segments + 1);
+
+        mArgb = CCFAnimator.argb(colors);
+        mHsv = CCFAnimator.hsv(colors);
+
+        // alternating modes, so call site of ConcatAnimator is megamorphic
+        final CCFAnimator[] animators = new CCFAnimator[segments];
+        for (int i = 0; i < segments; i++) {
+            switch (i % 3) {
+                case 0:
+                    animators[i] = CCFAnimator.rgb(colors[i], colors[i + 1]);
+                    break;
+                case 1:
+                    animators[i] = CCFAnimator.argb(colors[i], colors[i + 1]);
+                    break;
+                default:
+                    animators[i] = CCFAnimator.hsv(colors[i], colors[i + 1]);
+                    break;
+            }
+        }
+        mMixed = CCFAnimator.concat(animators);
+
+        // two levels of concat, each one remaps fraction
+        final int half = segments / 2;
+        final int[] first = new int[half + 1];
+        final int[] second = new int[segments - half + 1];
+        System.arraycopy(colors, 0, first, 0, first.length);
+        System.arraycopy(colors, half, second, 0, second.length);
+        mNested = CCFAnimator.concat(CCFAnimator.argb(first), CCFAnimator.hsv(second));
+
+        mArgbCompiled = mArgb.compile();
+        mMixedCompiled = mMixed.compile();
+        mNestedCompiled = mNested.compile();
+
+        mFractions = Colors.randomFractions();
+    }
+
+    private float nextFraction() {
+        mIndex = (mIndex + 1) & (Colors.FRACTIONS_LENGTH - 1);
+        return mFractions[mIndex];
+    }
+
+    @Benchmark
+    public int argb() {
+        return mArgb.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int hsv() {
+        return mHsv.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int mixed() {
+        return mMixed.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int nested() {
+        return mNested.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int argbCompiled() {
+        return mArgbCompiled.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int mixedCompiled() {
+        return mMixedCompiled.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int nestedCompiled() {
+        return mNestedCompiled.getColor(nextFraction());
+    }
+}
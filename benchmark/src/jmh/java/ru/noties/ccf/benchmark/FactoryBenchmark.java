@@ -0,0 +1,43 @@
+package ru.noties.ccf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.noties.ccf.CCFAnimator;
+
+/**
+ * Construction cost of array factory methods
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FactoryBenchmark {
+
+    @Param({"2", "10", "100"})
+    public int colors;
+
+    private int[] mColors;
+
+    @Setup
+    public void setup() {
+        mColors = Colors.randomColors(colors);
+    }
+
+    @Benchmark
+    public CCFAnimator argb() {
+        return CCFAnimator.argb(mColors);
+    }
+
+    @Benchmark
+    public CCFAnimator hsv() {
+        return CCFAnimator.hsv(mColors);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.noties.ccf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.noties.ccf.CCFAnimator;
+
+/**
+ * Single `getColor` call for each of two-color modes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GetColorBenchmark {
+
+    private CCFAnimator mRgb;
+    private CCFAnimator mArgb;
+    private CCFAnimator mAlpha;
+    private CCFAnimator mHsv;
+    private CCFAnimator mHsvAlpha;
+    private CCFAnimator mHsvBackwards;
+    private CCFAnimator mLinearRgb;
+    private CCFAnimator mLinearArgb;
+
+    private float[] mFractions;
+    private int mIndex;
+
+    @Setup
+    public void setup() {
+
+        mRgb = CCFAnimator.rgb(0xFF03a9f4, 0xFF009688);
+        mArgb = CCFAnimator.argb(0x8003a9f4, 0xFF009688);
+        mAlpha = CCFAnimator.alpha(0xFF03a9f4, 0x20);
+
+        // hue 0 -> 120
+        mHsv = CCFAnimator.hsv(0xFFFF0000, 0xFF00FF00);
+        mHsvAlpha = CCFAnimator.hsv(0xFFFF0000, 0xFF00FF00, 0x80, 0xFF);
+
+        // hue 0 -> 240 goes through 360 (HSVBackwardsAnimator)
+        mHsvBackwards = CCFAnimator.hsv(0xFFFF0000, 0xFF0000FF);
+
+        mLinearRgb = CCFAnimator.linearRgb(0xFF03a9f4, 0xFF009688);
+        mLinearArgb = CCFAnimator.linearArgb(0x8003a9f4, 0xFF009688);
+
+        mFractions = Colors.randomFractions();
+    }
+
+    private float nextFraction() {
+        mIndex = (mIndex + 1) & (Colors.FRACTIONS_LENGTH - 1);
+        return mFractions[mIndex];
+    }
+
+    @Benchmark
+    public int rgb() {
+        return mRgb.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int argb() {
+        return mArgb.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int alpha() {
+        return mAlpha.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int hsv() {
+        return mHsv.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int hsvAlpha() {
+        return mHsvAlpha.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int hsvBackwards() {
+        return mHsvBackwards.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int linearRgb() {
+        return mLinearRgb.getColor(nextFraction());
+    }
+
+    @Benchmark
+    public int linearArgb() {
+        return mLinearArgb.getColor(nextFraction());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.noties.ccf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import ru.noties.ccf.CCFAnimator;
+import ru.noties.ccf.CCFImageWriter;
+
+/**
+ * Streaming a 1000x1000 gradient image into a stream that discards bytes. An operation is
+ * a pixel, so `ops/us` is megapixels per second
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ImageWriterBenchmark {
+
+    private static final int SIZE = 1000;
+    private static final int PIXELS = SIZE * SIZE;
+
+    @Param({"0", "90", "30"})
+    public float angle;
+
+    private CCFImageWriter mRaw;
+    private CCFImageWriter mPng;
+    private OutputStream mOutputStream;
+
+    @Setup
+    public void setup() {
+
+        final CCFAnimator animator = CCFAnimator.hsv(Colors.randomColors(4));
+
+        mRaw = new CCFImageWriter(animator, SIZE, SIZE)
+                .angle(angle)
+                .format(CCFImageWriter.FORMAT_RAW);
+
+        mPng = new CCFImageWriter(animator, SIZE, SIZE)
+                .angle(angle)
+                .format(CCFImageWriter.FORMAT_PNG);
+
+        mOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIXELS)
+    public void raw() throws IOException {
+        mRaw.write(mOutputStream);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIXELS)
+    public void png() throws IOException {
+        mPng.write(mOutputStream);
+    }
+}
@@ -1,7 +1,7 @@
 package ru.noties.ccf;
 
+import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
-import android.graphics.Color;
 import android.support.annotation.ColorInt;
 import android.support.annotation.FloatRange;
 import android.support.annotation.IntRange;
@@ -14,10 +14,84 @@ import android.support.annotation.Size;
  */
 public abstract class CCFAnimator {
 
+    /**
+     * Fixed-point representation of fraction `1.F` for {@link #getColorFixed(int)} (16 fractional bits)
+     */
+    public static final int FRACTION_ONE = 1 << 16;
+
+    private static final float FRACTION_ONE_INVERSE = 1.F / FRACTION_ONE;
+
+    // rounding half for both 32-bit lanes of a packed pair of channels
+    private static final long PACKED_HALF = ((long) (FRACTION_ONE >> 1) << 32) | (FRACTION_ONE >> 1);
+
+    // Skia's SK_ScalarNearlyZero
+    private static final float HSV_NEARLY_ZERO = 1.F / (1 << 12);
+
+    /**
+     * Default listener dispatch budget of a frame for {@link CCFMetrics#onSlowFrame(long, long)} (a half of 60fps frame)
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 8L * 1000L * 1000L;
+
+    private static volatile CCFMetrics sMetrics;
+    private static volatile long sFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
     public interface OnNewColorListener {
         void onNewColor(@ColorInt int color);
     }
 
+    /**
+     * Installs global metrics with {@link #DEFAULT_FRAME_BUDGET_NANOS}
+     *
+     * @see #setMetrics(CCFMetrics, long)
+     */
+    public static void setMetrics(@Nullable CCFMetrics metrics) {
+        setMetrics(metrics, DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    /**
+     * Installs (or removes if `null`) global metrics. Only ValueAnimators and {@link DistinctColorListener}s
+     * created after this call report to installed metrics, so metrics could be installed for a traced
+     * session only. When no metrics are installed (default) nothing is measured
+     *
+     * @see #instrument(CCFAnimator)
+     *
+     * @param metrics {@link CCFMetrics} to report to
+     * @param frameBudgetNanos listener dispatch time of a frame above which {@link CCFMetrics#onSlowFrame(long, long)} is reported
+     */
+    public static void setMetrics(@Nullable CCFMetrics metrics, @IntRange(from = 0) long frameBudgetNanos) {
+        if (frameBudgetNanos < 0L) {
+            throw new IllegalArgumentException("Frame budget must not be negative, specified: " + frameBudgetNanos);
+        }
+        sFrameBudgetNanos = frameBudgetNanos;
+        sMetrics = metrics;
+    }
+
+    /**
+     * @return installed {@link CCFMetrics} or null
+     */
+    @Nullable
+    public static CCFMetrics getMetrics() {
+        return sMetrics;
+    }
+
+    public static long getFrameBudgetNanos() {
+        return sFrameBudgetNanos;
+    }
+
+    /**
+     * Wraps specified {@link CCFAnimator} so each evaluation (single or bulk) is timed and reported
+     * to installed {@link CCFMetrics} (if any). Useful for animators that are evaluated directly,
+     * not via {@link #asValueAnimator(OnNewColorListener)}
+     *
+     * @param animator to instrument
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator instrument(@NonNull CCFAnimator animator) {
+        return animator instanceof InstrumentedAnimator
+                ? animator
+                : new InstrumentedAnimator(animator);
+    }
+
     /**
      * Concats specified array of {@link CCFAnimator} into a {@link ru.noties.ccf.CCFAnimator.ConcatAnimator}. Maybe be used to
      * mix hsv, arg, argb CCFAnimators
@@ -33,6 +107,38 @@ public abstract class CCFAnimator {
         return new ConcatAnimator(animators);
     }
 
+    /**
+     * Concats specified array of {@link CCFAnimator} into a {@link ru.noties.ccf.CCFAnimator.ConcatAnimator}
+     * where each animator occupies the range between two adjacent `positions` (like stops of `LinearGradient`).
+     * Fractions before the first position and after the last one are clamped. Segment is found
+     * with a binary search, so numerous stops are cheap
+     *
+     * @see #rgb(int[], float[])
+     * @see #argb(int[], float[])
+     * @see #hsv(int[], float[])
+     *
+     * @param positions non-decreasing segment bounds, length must be `animators.length + 1`
+     * @param animators array of {@link CCFAnimator} to include in returned {@link ru.noties.ccf.CCFAnimator.ConcatAnimator}
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator concat(@NonNull float[] positions, @NonNull CCFAnimator... animators) {
+
+        if (positions.length != animators.length + 1) {
+            throw new IllegalArgumentException("Positions length must be `animators.length + 1`, " +
+                    "positions: " + positions.length + ", animators: " + animators.length);
+        }
+
+        for (int i = 1, length = positions.length; i < length; i++) {
+            // also fails for NaN
+            if (!(positions[i] >= positions[i - 1])) {
+                throw new IllegalArgumentException("Positions must be non-decreasing, position at " + i
+                        + ": " + positions[i] + ", previous: " + positions[i - 1]);
+            }
+        }
+
+        return new ConcatAnimator(animators, positions.clone());
+    }
+
     /**
      * Creates a {@link CCFAnimator} animate alpha of specified color
      *
@@ -83,6 +189,24 @@ public abstract class CCFAnimator {
         return concat(animators);
     }
 
+    /**
+     * Constructs a {@link CCFAnimator} from specified array of colors placed at specified positions
+     *
+     * @see #rgb(int[])
+     * @see #concat(float[], CCFAnimator...)
+     *
+     * @param colors colors to animate (minimum length is 2)
+     * @param positions non-decreasing position of each color, must have the same length as `colors`
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator rgb(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+        final CCFAnimator[] animators = new CCFAnimator[colors.length - 1];
+        for (int i = 0, length = animators.length; i < length; i++) {
+            animators[i] = CCFAnimator.rgb(colors[i], colors[i + 1]);
+        }
+        return concat(positions, animators);
+    }
+
     /**
      * Creates a {@link CCFAnimator} to animate `fromColor` color to `toColor`
      *
@@ -127,6 +251,105 @@ public abstract class CCFAnimator {
         return concat(animators);
     }
 
+    /**
+     * Constructs a {@link CCFAnimator} from specified array of colors placed at specified positions
+     *
+     * @see #argb(int[])
+     * @see #concat(float[], CCFAnimator...)
+     *
+     * @param colors colors to animate (minimum length is 2)
+     * @param positions non-decreasing position of each color, must have the same length as `colors`
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator argb(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+        final CCFAnimator[] animators = new CCFAnimator[colors.length - 1];
+        for (int i = 0, length = animators.length; i < length; i++) {
+            animators[i] = CCFAnimator.argb(colors[i], colors[i + 1]);
+        }
+        return concat(positions, animators);
+    }
+
+    /**
+     * Creates a {@link CCFAnimator} to animate `fromColor` color to `toColor` in linear light (gamma-correct),
+     * which avoids dark & muddy midpoints of {@link #rgb(int, int)}. sRGB transfer functions are applied
+     * via lookup tables, so there is no `Math.pow` during evaluation. Alpha property will be ignored
+     *
+     * @see #linearArgb(int, int)
+     * @see #linearRgb(int[])
+     *
+     * @param fromColor starting color
+     * @param toColor end color
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator linearRgb(
+            @ColorInt int fromColor,
+            @ColorInt int toColor
+    ) {
+        return new LinearRGBAnimator(null, fromColor, toColor);
+    }
+
+    /**
+     * Creates a {@link CCFAnimator} to animate between array of colors in linear light.
+     * For each pair of colors linear RGB CCFAnimator will be created
+     *
+     * @see #linearRgb(int, int)
+     *
+     * @param colors to animate
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator linearRgb(@Size(min = 2) int[] colors) {
+        final CCFAnimator[] animators = new CCFAnimator[colors.length - 1];
+        for (int i = 0, length = animators.length; i < length; i++) {
+            animators[i] = CCFAnimator.linearRgb(colors[i], colors[i + 1]);
+        }
+        return concat(animators);
+    }
+
+    /**
+     * Creates a {@link CCFAnimator} to animate `fromColor` color to `toColor` in linear light (gamma-correct).
+     * Alpha is not gamma-encoded, so it's animated linearly as in {@link #argb(int, int)}
+     *
+     * @see #linearRgb(int, int)
+     * @see #linearArgb(int[])
+     *
+     * @param fromColor starting color
+     * @param toColor end color
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator linearArgb(
+            @ColorInt int fromColor,
+            @ColorInt int toColor
+    ) {
+
+        final int fromAlpha = extractAlpha(fromColor);
+        final int toAlpha   = extractAlpha(toColor);
+
+        final AlphaEvaluator alphaEvaluator;
+        if (fromAlpha != toAlpha) {
+            alphaEvaluator = new AlphaEvaluatorImpl(fromAlpha, toAlpha);
+        } else {
+            alphaEvaluator = null;
+        }
+
+        return new LinearRGBAnimator(alphaEvaluator, fromColor, toColor);
+    }
+
+    /**
+     * Constructs a {@link CCFAnimator} from specified array of colors animated in linear light
+     *
+     * @see #linearArgb(int, int)
+     *
+     * @param colors colors to cross-fade (minimum length is 2)
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator linearArgb(@Size(min = 2) int[] colors) {
+        final CCFAnimator[] animators = new CCFAnimator[colors.length - 1];
+        for (int i = 0, length = animators.length; i < length; i++) {
+            animators[i] = CCFAnimator.linearArgb(colors[i], colors[i + 1]);
+        }
+        return concat(animators);
+    }
+
     /**
      * Creates a {@link CCFAnimator} to animate HSV of specified colors. Alpha property will be ignored
      *
@@ -199,16 +422,229 @@ public abstract class CCFAnimator {
         return concat(animators);
     }
 
+    /**
+     * Constructs a {@link CCFAnimator} from specified array of colors placed at specified positions
+     *
+     * @see #hsv(int[])
+     * @see #concat(float[], CCFAnimator...)
+     *
+     * @param colors colors to animate (minimum length is 2)
+     * @param positions non-decreasing position of each color, must have the same length as `colors`
+     * @return {@link CCFAnimator}
+     */
+    public static CCFAnimator hsv(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+        final CCFAnimator[] animators = new CCFAnimator[colors.length - 1];
+        for (int i = 0, length = animators.length; i < length; i++) {
+            animators[i] = CCFAnimator.hsv(colors[i], colors[i + 1]);
+        }
+        return concat(positions, animators);
+    }
+
     protected static boolean isHSVBackwards(float fromH, float toH) {
         return Math.abs(toH - fromH) > 180.F;
     }
 
+    // Helpers below keep exactly the same float arithmetic as animators, so evaluators that work with
+    // packed colors or raw hsv values (pager, multi animator, simplifier) produce identical colors
+
+    // rgb channel of RGBAnimator
+    static int lerpChannel(int from, int to, float fraction) {
+        return (int) (from + ((to - from) * fraction + .5F));
+    }
+
+    // alpha channel of AlphaEvaluatorImpl (rounded after the sum, unlike rgb channels)
+    static int lerpAlpha(int from, int to, float fraction) {
+        return (int) (from + (to - from) * fraction + .5F);
+    }
+
+    // RGBAnimator without alpha
+    static int lerpRgb(int from, int to, float fraction) {
+        return 0xFF000000
+                | (lerpChannel((from >> 16) & 0xFF, (to >> 16) & 0xFF, fraction) << 16)
+                | (lerpChannel((from >> 8) & 0xFF, (to >> 8) & 0xFF, fraction) << 8)
+                | lerpChannel(from & 0xFF, to & 0xFF, fraction);
+    }
+
+    // RGBAnimator created by `argb`: alpha is animated only if it differs, otherwise it's 0xFF (no AlphaEvaluator)
+    static int lerpArgb(int from, int to, float fraction) {
+        final int fromAlpha = from >>> 24;
+        final int toAlpha = to >>> 24;
+        final int alpha = fromAlpha != toAlpha
+                ? lerpAlpha(fromAlpha, toAlpha, fraction)
+                : 0xFF;
+        return (alpha << 24)
+                | (lerpChannel((from >> 16) & 0xFF, (to >> 16) & 0xFF, fraction) << 16)
+                | (lerpChannel((from >> 8) & 0xFF, (to >> 8) & 0xFF, fraction) << 8)
+                | lerpChannel(from & 0xFF, to & 0xFF, fraction);
+    }
+
+    // signed hue distance that HSVAnimator (direct) or HSVBackwardsAnimator (through 0) goes
+    static float hueDiff(float fromH, float toH) {
+        if (isHSVBackwards(fromH, toH)) {
+            final float diff = 360.F - (Math.abs(toH - fromH));
+            return Float.compare(fromH, toH) > 0
+                    ? diff
+                    : -diff;
+        }
+        return toH - fromH;
+    }
+
+    // brings hue that went through 0 back to [0..360]
+    static float wrapHue(float h) {
+        if (Float.compare(h, 360.F) > 0) {
+            return h - 360.F;
+        }
+        if (Float.compare(h, .0F) < 0) {
+            return 360.F - Math.abs(h);
+        }
+        return h;
+    }
+
+    // hue of HSVAnimator or HSVBackwardsAnimator
+    static float hsvHue(float fromH, float toH, float fraction) {
+        return wrapHue(fromH + (hueDiff(fromH, toH) * fraction));
+    }
+
     protected static float[] buildHSV(@ColorInt int color) {
         final float[] hsv = new float[3];
-        Color.colorToHSV(color, hsv);
+        colorToHSV(color, hsv);
         return hsv;
     }
 
+    /**
+     * Converts specified color to HSV components. Pure java version of `android.graphics.Color.colorToHSV`,
+     * produces the same values as framework (both follow Skia's `SkRGBToHSV`) and doesn't allocate
+     *
+     * @param color color to convert (alpha is ignored)
+     * @param hsv array to store hue [0..360), saturation [0..1] and value [0..1]
+     */
+    protected static void colorToHSV(@ColorInt int color, @Size(3) float[] hsv) {
+
+        final int r = (color >> 16) & 0xFF;
+        final int g = (color >> 8) & 0xFF;
+        final int b = color & 0xFF;
+
+        final int max = Math.max(r, Math.max(g, b));
+        final int delta = max - Math.min(r, Math.min(g, b));
+
+        hsv[2] = max / 255.F;
+
+        if (delta == 0) {
+            // shade of gray
+            hsv[0] = .0F;
+            hsv[1] = .0F;
+            return;
+        }
+
+        float h;
+        if (r == max) {
+            h = (float) (g - b) / delta;
+        } else if (g == max) {
+            h = 2.F + (float) (b - r) / delta;
+        } else {
+            h = 4.F + (float) (r - g) / delta;
+        }
+
+        h *= 60.F;
+        if (h < .0F) {
+            h += 360.F;
+        }
+
+        hsv[0] = h;
+        hsv[1] = (float) delta / max;
+    }
+
+    /**
+     * @see #hsvToColor(int, float, float, float)
+     */
+    @ColorInt
+    protected static int hsvToColor(@IntRange(from = 0, to = 255) int alpha, @Size(3) float[] hsv) {
+        return hsvToColor(alpha, hsv[0], hsv[1], hsv[2]);
+    }
+
+    /**
+     * Converts HSV components to a color. Pure java version of `android.graphics.Color.HSVToColor`,
+     * follows Skia's `SkHSVToColor` step by step in float precision, so results are bit-exact
+     * with framework (at most 1 per channel if native code was compiled with fused multiply-add)
+     *
+     * @param alpha alpha of the resulting color
+     * @param h hue [0..360), values outside this range are treated as 0
+     * @param s saturation, clamped to [0..1]
+     * @param v value, clamped to [0..1]
+     * @return color
+     */
+    @ColorInt
+    protected static int hsvToColor(@IntRange(from = 0, to = 255) int alpha, float h, float s, float v) {
+
+        s = s < .0F ? .0F : (s > 1.F ? 1.F : s);
+        v = v < .0F ? .0F : (v > 1.F ? 1.F : v);
+
+        final int vByte = round(v * 255.F);
+
+        if (s <= HSV_NEARLY_ZERO) {
+            // shade of gray
+            return (alpha << 24) | (vByte << 16) | (vByte << 8) | vByte;
+        }
+
+        final float hx = (h < .0F || h >= 360.F) ? .0F : h / 60.F;
+        final int sector = (int) hx;
+        final float f = hx - sector;
+
+        final int p = round((1.F - s) * v * 255.F);
+        final int q = round((1.F - (s * f)) * v * 255.F);
+        final int t = round((1.F - (s * (1.F - f))) * v * 255.F);
+
+        final int rgb;
+        switch (sector) {
+            case 0:     rgb = (vByte << 16) | (t << 8)      | p;        break;
+            case 1:     rgb = (q << 16)     | (vByte << 8)  | p;        break;
+            case 2:     rgb = (p << 16)     | (vByte << 8)  | t;        break;
+            case 3:     rgb = (p << 16)     | (q << 8)      | vByte;    break;
+            case 4:     rgb = (t << 16)     | (p << 8)      | vByte;    break;
+            default:    rgb = (vByte << 16) | (p << 8)      | q;        break;
+        }
+
+        return (alpha << 24) | rgb;
+    }
+
+    /**
+     * Interpolates all 4 channels of specified colors with fixed-point fraction (0..{@link #FRACTION_ONE})
+     */
+    @ColorInt
+    protected static int interpolateFixed(@ColorInt int fromColor, @ColorInt int toColor, int fraction) {
+        return unpackFixed(
+                packAR(fromColor) * (FRACTION_ONE - fraction) + packAR(toColor) * fraction + PACKED_HALF,
+                packGB(fromColor) * (FRACTION_ONE - fraction) + packGB(toColor) * fraction + PACKED_HALF
+        );
+    }
+
+    // Channels are spread into 32-bit lanes of a long (alpha & red, green & blue). As a channel
+    // is 8 bits and fraction is 17 bits max, `channel * fraction` fits a lane without carry
+    private static long packAR(@ColorInt int color) {
+        return ((long) (color >>> 24) << 32) | ((color >> 16) & 0xFF);
+    }
+
+    private static long packGB(@ColorInt int color) {
+        return ((long) ((color >> 8) & 0xFF) << 32) | (color & 0xFF);
+    }
+
+    @ColorInt
+    private static int unpackFixed(long ar, long gb) {
+        return ((int) (ar >>> 48) << 24)
+                | (((int) (ar >>> 16) & 0xFF) << 16)
+                | ((int) (gb >>> 40) & 0xFF00)
+                | ((int) (gb >>> 16) & 0xFF);
+    }
+
+    private static int clampFixed(int fraction) {
+        return fraction < 0 ? 0 : (fraction > FRACTION_ONE ? FRACTION_ONE : fraction);
+    }
+
+    private static int round(float value) {
+        // all values are positive, so truncation is the same as floor
+        return (int) (value + .5F);
+    }
+
     protected static int[] buildRGB(@ColorInt int color) {
         final int[] rgb = new int[3];
         rgb[0] = (color >> 16) & 0xFF;
@@ -242,51 +678,396 @@ public abstract class CCFAnimator {
     }
 
     /**
-     * Returns a color depending on fraction
+     * Returns a color depending on fraction. Does not allocate and does not modify any state of this
+     * {@link CCFAnimator}, so one instance could be shared between views and evaluated from multiple threads
      * @param fraction current animation fraction
      * @return color
      */
     public abstract int getColor(@FloatRange(from = .0F, to = 1.F) float fraction);
 
-
-    public ValueAnimator asValueAnimator(@NonNull final OnNewColorListener onNewColorListener) {
-        final ValueAnimator animator = ValueAnimator.ofFloat(.0F, 1.F);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                final float fraction = animation.getAnimatedFraction();
-                onNewColorListener.onNewColor(getColor(fraction));
-            }
-        });
-        return animator;
+    /**
+     * Returns a color depending on fixed-point fraction, where `0` is `.0F` and {@link #FRACTION_ONE} is `1.F`.
+     * rgb, argb and alpha animators (and concat/baked of them) evaluate it in integer arithmetic only,
+     * interpolating two channels per multiply. Rounding is half up as in {@link #getColor(float)}, so for
+     * the same fraction (`fraction / FRACTION_ONE`) result is identical, except for rare cases
+     * where float path itself rounds `x.5` to a wrong side. Other animators evaluate it as float
+     *
+     * @param fraction fixed-point fraction [0..{@link #FRACTION_ONE}]
+     * @return color
+     */
+    public int getColorFixed(@IntRange(from = 0, to = FRACTION_ONE) int fraction) {
+        return getColor(fraction * FRACTION_ONE_INVERSE);
     }
 
-    protected interface AlphaEvaluator {
-        int evaluate(float fraction);
+    /**
+     * Evaluates colors for all specified fractions in one call
+     *
+     * @see #getColors(float[], int, int[], int, int, int)
+     *
+     * @param fractions fractions to evaluate
+     * @param out array to store evaluated colors, must be at least of `fractions.length` length
+     */
+    public void getColors(@NonNull float[] fractions, @NonNull int[] out) {
+        getColors(fractions, 0, out, 0, 1, fractions.length);
     }
 
-    protected static class AlphaEvaluatorImpl implements AlphaEvaluator {
-
-        private final int mFromAlpha;
-        private final int mToAlpha;
-
-        protected AlphaEvaluatorImpl(int fromAlpha, int toAlpha) {
-            mFromAlpha = fromAlpha;
-            mToAlpha = toAlpha;
+    /**
+     * Evaluates colors for `length` fractions starting at `fractionsOffset` and stores them in `out`
+     * starting at `outOffset` with `outStride` step. Does not allocate
+     *
+     * @param fractions fractions to evaluate
+     * @param fractionsOffset index of the first fraction
+     * @param out array to store evaluated colors
+     * @param outOffset index in `out` for the first color
+     * @param outStride distance between two stored colors in `out` (minimum is 1)
+     * @param length number of fractions to evaluate
+     */
+    public void getColors(
+            @NonNull float[] fractions,
+            int fractionsOffset,
+            @NonNull int[] out,
+            int outOffset,
+            @IntRange(from = 1) int outStride,
+            int length
+    ) {
+        checkBounds(fractions.length, fractionsOffset, 1, length);
+        checkBounds(out.length, outOffset, outStride, length);
+        if (length > 0) {
+            evaluateColors(fractions, fractionsOffset, out, outOffset, outStride, length);
         }
+    }
 
-        @Override
-        public int evaluate(float fraction) {
-            return (int) (mFromAlpha + (mToAlpha - mFromAlpha) * fraction + .5F);
+    /**
+     * Fills whole `out` array with evenly spaced colors (first one is for fraction `.0F`, last one is for `1.F`)
+     *
+     * @see #getColors(int[], int, int, int)
+     *
+     * @param out array to store colors
+     */
+    public void getColors(@NonNull int[] out) {
+        getColors(out, 0, out.length, 1);
+    }
+
+    /**
+     * Stores `count` evenly spaced colors (first one is for fraction `.0F`, last one is for `1.F`)
+     * in `out` array starting at `offset` with `stride` step. Does not allocate. Color `i` is
+     * identical to `getColor(i * (1.F / (count - 1)))`, concatenated animators included
+     *
+     * @param out array to store colors
+     * @param offset index in `out` for the first color
+     * @param count number of colors to evaluate
+     * @param stride distance between two stored colors in `out` (minimum is 1)
+     */
+    public void getColors(@NonNull int[] out, int offset, int count, @IntRange(from = 1) int stride) {
+        checkBounds(out.length, offset, stride, count);
+        if (count > 0) {
+            final float step = count > 1
+                    ? 1.F / (count - 1)
+                    : .0F;
+            sweepColors(.0F, step, 0, out, offset, stride, count);
         }
     }
 
-    protected static class RGBAnimator extends CCFAnimator {
+    /**
+     * Bulk evaluation, called with already validated arguments. Default implementation
+     * evaluates a segment with identity mapping, subclasses may provide a tighter loop
+     *
+     * @see #evaluateSegment(float[], int, float, float, float, int[], int, int, int)
+     */
+    protected void evaluateColors(
+            @NonNull float[] fractions,
+            int fractionsOffset,
+            @NonNull int[] out,
+            int outOffset,
+            int outStride,
+            int length
+    ) {
+        evaluateSegment(fractions, fractionsOffset, 1.F, .0F, 1.F, out, outOffset, outStride, length);
+    }
 
-        private final AlphaEvaluator mAlphaEvaluator;
-        private final int[] mFromColor;
+    /**
+     * Evaluates colors for `count` fractions `start + step * i` (`i` goes from `first`), called with
+     * already validated arguments. Sample index is absolute, so a sweep split into parts gives exactly
+     * the same fractions as the whole one. Default implementation sweeps a segment with identity mapping
+     *
+     * @see #sweepSegment(float, float, int, float, float, float, int[], int, int, int)
+     */
+    protected void sweepColors(
+            float start,
+            float step,
+            int first,
+            @NonNull int[] out,
+            int offset,
+            int stride,
+            int count
+    ) {
+        sweepSegment(start, step, first, 1.F, .0F, 1.F, out, offset, stride, count);
+    }
+
+    /**
+     * Same as {@link #evaluateColors(float[], int, int[], int, int, int)}, but each fraction is
+     * mapped to `(fraction * multiplier - origin) * scale` first. This is exactly the arithmetic
+     * a concatenated animator applies in {@link #getColor(float)} before delegating to a segment,
+     * so a whole run of fractions can be handed to a segment with identical results.
+     * Default implementation calls {@link #getColor(float)} for each mapped fraction
+     */
+    protected void evaluateSegment(
+            @NonNull float[] fractions,
+            int fractionsOffset,
+            float multiplier,
+            float origin,
+            float scale,
+            @NonNull int[] out,
+            int outOffset,
+            int outStride,
+            int length
+    ) {
+        for (int i = fractionsOffset, end = fractionsOffset + length, o = outOffset; i < end; i++, o += outStride) {
+            out[o] = getColor((fractions[i] * multiplier - origin) * scale);
+        }
+    }
+
+    /**
+     * Same as {@link #sweepColors(float, float, int, int[], int, int, int)}, but each fraction is
+     * mapped to `(fraction * multiplier - origin) * scale` first.
+     * Default implementation calls {@link #getColor(float)} for each mapped fraction
+     *
+     * @see #evaluateSegment(float[], int, float, float, float, int[], int, int, int)
+     */
+    protected void sweepSegment(
+            float start,
+            float step,
+            int first,
+            float multiplier,
+            float origin,
+            float scale,
+            @NonNull int[] out,
+            int offset,
+            int stride,
+            int count
+    ) {
+        for (int i = first, end = first + count, o = offset; i < end; i++, o += stride) {
+            out[o] = getColor(((start + step * i) * multiplier - origin) * scale);
+        }
+    }
+
+    private static void checkBounds(int arrayLength, int offset, int stride, int length) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be at least 1, specified: " + stride);
+        }
+        if (offset < 0
+                || length < 0
+                || (length > 0 && offset + (long) (length - 1) * stride >= arrayLength)) {
+            throw new IndexOutOfBoundsException("Array length: " + arrayLength + ", offset: " + offset
+                    + ", stride: " + stride + ", length: " + length);
+        }
+    }
+
+    /**
+     * Compiles this {@link CCFAnimator} (with all nested concat animators) into a flat table of segments
+     * stored as primitive arrays (segment bounds, mode tag, start and difference of alpha and each channel).
+     * Returned {@link CCFAnimator} evaluates any segment with a single monomorphic method: one binary
+     * search (or a multiply for equally sized segments) and no dispatch or fraction remapping per nesting level.
+     * A segment takes about 45 bytes (plus 24 for HSV), compared to an object with two channel arrays per stop.
+     *
+     * rgb, argb, alpha, linear and HSV animators are compiled. Other animators (baked, custom subclasses)
+     * are kept as delegating segments. Fractions are clamped to [0..1]. For nested concat animators segment
+     * bounds are computed once, so a color could differ from the original one by 1 in a channel
+     * right at a segment bound due to float rounding
+     *
+     * @return {@link CCFAnimator}
+     */
+    public CCFAnimator compile() {
+
+        if (this instanceof CompiledAnimator) {
+            return this;
+        }
+
+        return new CompiledAnimator(this);
+    }
+
+    private static int countSegments(@NonNull CCFAnimator animator) {
+        if (animator instanceof ConcatAnimator) {
+            int count = 0;
+            for (CCFAnimator child : ((ConcatAnimator) animator).mAnimators) {
+                count += countSegments(child);
+            }
+            return count;
+        }
+        return 1;
+    }
+
+    // whether flattened segments are equally sized & evaluated exactly as in an equally sized ConcatAnimator
+    private static boolean isUniform(@NonNull CCFAnimator animator) {
+        if (animator instanceof ConcatAnimator) {
+            final ConcatAnimator concat = (ConcatAnimator) animator;
+            if (concat.mPositions != null) {
+                return false;
+            }
+            for (CCFAnimator child : concat.mAnimators) {
+                if (child instanceof ConcatAnimator) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bakes this {@link CCFAnimator} into a lookup table of `resolution` evenly spaced colors.
+     * Returned {@link CCFAnimator} resolves `getColor` with a single array read (nearest table entry)
+     *
+     * @see #bake(int, boolean)
+     *
+     * @param resolution number of colors in the table (minimum is 2)
+     * @return {@link CCFAnimator}
+     */
+    public CCFAnimator bake(@IntRange(from = 2) int resolution) {
+        return bake(resolution, false);
+    }
+
+    /**
+     * Bakes this {@link CCFAnimator} into a lookup table of `resolution` evenly spaced colors.
+     * Table takes `4 * resolution` bytes (plus array header), so 256 entries is 1KB and 1024 entries is 4KB.
+     *
+     * Without blending the result is the nearest table entry, so maximum error per channel is half
+     * of the channel change between two adjacent entries (for a full 0-255 sweep baked at 256 entries
+     * it's 1). With blending adjacent entries are interpolated linearly (ARGB), which is exact (+/- 1
+     * for rounding) for rgb and argb animators whose segment bounds fall on table entries and only
+     * deviates for HSV curves between two entries
+     *
+     * @param resolution number of colors in the table (minimum is 2)
+     * @param blend whether to linearly blend two adjacent table entries
+     * @return {@link CCFAnimator}
+     */
+    public CCFAnimator bake(@IntRange(from = 2) int resolution, boolean blend) {
+
+        if (resolution < 2) {
+            throw new IllegalArgumentException("Resolution must be at least 2, specified: " + resolution);
+        }
+
+        final int[] table = new int[resolution];
+        final int last = resolution - 1;
+        for (int i = 0; i < resolution; i++) {
+            table[i] = getColor((float) i / last);
+        }
+
+        return new BakedAnimator(table, blend);
+    }
+
+    /**
+     * Bakes specified `interpolator` together with this {@link CCFAnimator} into a single lookup table,
+     * so a frame costs one table read instead of the interpolator and `getColor` calls.
+     * Interpolated fractions outside of [0..1] (overshooting interpolators like `OvershootInterpolator`
+     * or `AnticipateOvershootInterpolator`) are clamped, so such a curve holds the end color instead of
+     * extrapolating past it. Interpolators with sharp turns (`BounceInterpolator`) need a bigger resolution
+     * to keep their turns exact.
+     *
+     * Returned {@link CCFAnimator} expects a linear (not interpolated) fraction, so a ValueAnimator
+     * that drives it must use a linear interpolator (`setInterpolator(null)`)
+     *
+     * @see #bake(int, boolean)
+     *
+     * @param interpolator to apply to a fraction before evaluating a color
+     * @param resolution number of colors in the table (minimum is 2)
+     * @param blend whether to linearly blend two adjacent table entries
+     * @return {@link CCFAnimator}
+     */
+    public CCFAnimator bake(
+            @NonNull TimeInterpolator interpolator,
+            @IntRange(from = 2) int resolution,
+            boolean blend
+    ) {
+
+        if (resolution < 2) {
+            throw new IllegalArgumentException("Resolution must be at least 2, specified: " + resolution);
+        }
+
+        final int[] table = new int[resolution];
+        final int last = resolution - 1;
+        for (int i = 0; i < resolution; i++) {
+            final float interpolated = interpolator.getInterpolation((float) i / last);
+            table[i] = getColor(clamp(interpolated));
+        }
+
+        return new BakedAnimator(table, blend);
+    }
+
+    static float clamp(float fraction) {
+        // NaN is treated as 0
+        return !(fraction > .0F) ? .0F : (fraction > 1.F ? 1.F : fraction);
+    }
+
+
+    /**
+     * Creates a ValueAnimator that delivers a color for each animation frame. If specified listener is
+     * a {@link DistinctColorListener}, it's reset when animation starts and flushed when it ends. If {@link CCFMetrics}
+     * are installed, evaluation and listener dispatch of each frame are timed
+     *
+     * @see #asValueAnimator(OnNewColorListener, int)
+     *
+     * @param onNewColorListener listener to receive colors
+     * @return ValueAnimator
+     */
+    public ValueAnimator asValueAnimator(@NonNull OnNewColorListener onNewColorListener) {
+        return ColorValueAnimators.create(this, onNewColorListener, sMetrics, sFrameBudgetNanos);
+    }
+
+    /**
+     * Creates a ValueAnimator that delivers a color only if it differs from the previously delivered one
+     * (by more than `tolerance` in at least one channel). Frames of long animations or animations between
+     * close colors often evaluate to the same color, so this saves redundant view invalidations.
+     * The exact final color is always delivered
+     *
+     * @see DistinctColorListener
+     *
+     * @param onNewColorListener listener to receive colors
+     * @param tolerance maximum difference of a channel (0-255) for a color to be treated as a duplicate,
+     *                  0 suppresses only exact duplicates
+     * @return ValueAnimator
+     */
+    public ValueAnimator asValueAnimator(
+            @NonNull OnNewColorListener onNewColorListener,
+            @IntRange(from = 0, to = 255) int tolerance
+    ) {
+        return asValueAnimator(new DistinctColorListener(onNewColorListener, tolerance));
+    }
+
+    /**
+     * Must not hold any mutable state, as {@link #getColor(float)} could be called from different threads
+     */
+    protected interface AlphaEvaluator {
+        int evaluate(float fraction);
+    }
+
+    protected static class AlphaEvaluatorImpl implements AlphaEvaluator {
+
+        private final int mFromAlpha;
+        private final int mToAlpha;
+
+        protected AlphaEvaluatorImpl(int fromAlpha, int toAlpha) {
+            mFromAlpha = fromAlpha;
+            mToAlpha = toAlpha;
+        }
+
+        @Override
+        public int evaluate(float fraction) {
+            return lerpAlpha(mFromAlpha, mToAlpha, fraction);
+        }
+    }
+
+    protected static class RGBAnimator extends CCFAnimator {
+
+        private final AlphaEvaluator mAlphaEvaluator;
+        private final int[] mFromColor;
         private final int[] mToColor;
-        private final int[] mOut;
+
+        // packed channels for fixed-point evaluation, `mHasFixed` is false for a custom AlphaEvaluator
+        private final boolean mHasFixed;
+        private final long mFromAR;
+        private final long mFromGB;
+        private final long mToAR;
+        private final long mToGB;
 
         protected RGBAnimator(
                 @Nullable AlphaEvaluator alphaEvaluator,
@@ -298,21 +1079,256 @@ public abstract class CCFAnimator {
             this.mAlphaEvaluator = alphaEvaluator;
             this.mFromColor = buildRGB(fromColor);
             this.mToColor   = buildRGB(toColor);
-            this.mOut = new int[3];
+
+            final int fromAlpha;
+            final int toAlpha;
+            if (alphaEvaluator == null) {
+                fromAlpha = toAlpha = 0xFF;
+            } else if (alphaEvaluator instanceof AlphaEvaluatorImpl) {
+                fromAlpha = ((AlphaEvaluatorImpl) alphaEvaluator).mFromAlpha;
+                toAlpha = ((AlphaEvaluatorImpl) alphaEvaluator).mToAlpha;
+            } else {
+                fromAlpha = toAlpha = 0;
+            }
+
+            this.mHasFixed = alphaEvaluator == null || alphaEvaluator instanceof AlphaEvaluatorImpl;
+            this.mFromAR = packAR(applyAlpha(fromColor, fromAlpha));
+            this.mFromGB = packGB(fromColor);
+            this.mToAR = packAR(applyAlpha(toColor, toAlpha));
+            this.mToGB = packGB(toColor);
         }
 
         @Override
         public int getColor(float fraction) {
 
-            mOut[0] = (int) (mFromColor[0] + ((mToColor[0] - mFromColor[0]) * fraction + .5F));
-            mOut[1] = (int) (mFromColor[1] + ((mToColor[1] - mFromColor[1]) * fraction + .5F));
-            mOut[2] = (int) (mFromColor[2] + ((mToColor[2] - mFromColor[2]) * fraction + .5F));
+            // no shared scratch state, so one instance could be evaluated from multiple threads
+            final int r = lerpChannel(mFromColor[0], mToColor[0], fraction);
+            final int g = lerpChannel(mFromColor[1], mToColor[1], fraction);
+            final int b = lerpChannel(mFromColor[2], mToColor[2], fraction);
+
+            final int alpha = mAlphaEvaluator != null
+                    ? mAlphaEvaluator.evaluate(fraction)
+                    : 0xFF;
+
+            return (alpha << 24) | (r << 16) | (g << 8) | b;
+        }
+
+        @Override
+        public int getColorFixed(int fraction) {
+
+            if (!mHasFixed) {
+                return super.getColorFixed(fraction);
+            }
+
+            final int f = clampFixed(fraction);
+            final int inverse = FRACTION_ONE - f;
+
+            return unpackFixed(
+                    mFromAR * inverse + mToAR * f + PACKED_HALF,
+                    mFromGB * inverse + mToGB * f + PACKED_HALF
+            );
+        }
+
+        @Override
+        protected void evaluateColors(float[] fractions, int fractionsOffset, int[] out, int outOffset, int outStride, int length) {
+
+            final int fromR = mFromColor[0];
+            final int fromG = mFromColor[1];
+            final int fromB = mFromColor[2];
+            final int diffR = mToColor[0] - fromR;
+            final int diffG = mToColor[1] - fromG;
+            final int diffB = mToColor[2] - fromB;
+            final AlphaEvaluator alphaEvaluator = mAlphaEvaluator;
+
+            if (outStride == 1) {
+                if (alphaEvaluator == null) {
+                    rgbKernel(fractions, fractionsOffset, out, outOffset, length, fromR, diffR, fromG, diffG, fromB, diffB);
+                    return;
+                }
+                if (alphaEvaluator instanceof AlphaEvaluatorImpl) {
+                    final AlphaEvaluatorImpl impl = (AlphaEvaluatorImpl) alphaEvaluator;
+                    argbKernel(
+                            fractions, fractionsOffset, out, outOffset, length,
+                            impl.mFromAlpha, impl.mToAlpha - impl.mFromAlpha,
+                            fromR, diffR, fromG, diffG, fromB, diffB
+                    );
+                    return;
+                }
+            }
+
+            evaluateSegment(fractions, fractionsOffset, 1.F, .0F, 1.F, out, outOffset, outStride, length);
+        }
+
+        @Override
+        protected void evaluateSegment(float[] fractions, int fractionsOffset, float multiplier, float origin, float scale, int[] out, int outOffset, int outStride, int length) {
+
+            final int fromR = mFromColor[0];
+            final int fromG = mFromColor[1];
+            final int fromB = mFromColor[2];
+            final int diffR = mToColor[0] - fromR;
+            final int diffG = mToColor[1] - fromG;
+            final int diffB = mToColor[2] - fromB;
+            final AlphaEvaluator alphaEvaluator = mAlphaEvaluator;
+
+            float fraction;
+            int r, g, b, alpha;
+
+            for (int i = fractionsOffset, end = fractionsOffset + length, o = outOffset; i < end; i++, o += outStride) {
+                fraction = (fractions[i] * multiplier - origin) * scale;
+                r = (int) (fromR + (diffR * fraction + .5F));
+                g = (int) (fromG + (diffG * fraction + .5F));
+                b = (int) (fromB + (diffB * fraction + .5F));
+                alpha = alphaEvaluator != null
+                        ? alphaEvaluator.evaluate(fraction)
+                        : 0xFF;
+                out[o] = (alpha << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+
+        @Override
+        protected void sweepSegment(float start, float step, int first, float multiplier, float origin, float scale, int[] out, int offset, int stride, int count) {
+
+            final int fromR = mFromColor[0];
+            final int fromG = mFromColor[1];
+            final int fromB = mFromColor[2];
+            final int diffR = mToColor[0] - fromR;
+            final int diffG = mToColor[1] - fromG;
+            final int diffB = mToColor[2] - fromB;
+            final AlphaEvaluator alphaEvaluator = mAlphaEvaluator;
+
+            float fraction;
+            int r, g, b, alpha;
+
+            for (int i = first, end = first + count, o = offset; i < end; i++, o += stride) {
+                fraction = ((start + step * i) * multiplier - origin) * scale;
+                r = (int) (fromR + (diffR * fraction + .5F));
+                g = (int) (fromG + (diffG * fraction + .5F));
+                b = (int) (fromB + (diffB * fraction + .5F));
+                alpha = alphaEvaluator != null
+                        ? alphaEvaluator.evaluate(fraction)
+                        : 0xFF;
+                out[o] = (alpha << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
 
-            if (mAlphaEvaluator != null) {
-                return argbToColor(mAlphaEvaluator.evaluate(fraction), mOut);
+        // Kernels below have no branches and no calls, access arrays with the loop index only and keep
+        // exactly the same float arithmetic (and rounding) as `getColor`, so JIT can auto-vectorize them
+        // (several fractions per instruction, SuperWord in HotSpot C2) and results are still identical
+
+        private static void rgbKernel(
+                @NonNull float[] fractions,
+                int fractionsOffset,
+                @NonNull int[] out,
+                int outOffset,
+                int length,
+                int fromR, int diffR,
+                int fromG, int diffG,
+                int fromB, int diffB
+        ) {
+            final int delta = outOffset - fractionsOffset;
+            for (int i = fractionsOffset, end = fractionsOffset + length; i < end; i++) {
+                final float fraction = fractions[i];
+                final int r = (int) (fromR + (diffR * fraction + .5F));
+                final int g = (int) (fromG + (diffG * fraction + .5F));
+                final int b = (int) (fromB + (diffB * fraction + .5F));
+                out[i + delta] = 0xFF000000 | (r << 16) | (g << 8) | b;
             }
+        }
 
-            return rgbToColor(mOut);
+        private static void argbKernel(
+                @NonNull float[] fractions,
+                int fractionsOffset,
+                @NonNull int[] out,
+                int outOffset,
+                int length,
+                int fromA, int diffA,
+                int fromR, int diffR,
+                int fromG, int diffG,
+                int fromB, int diffB
+        ) {
+            final int delta = outOffset - fractionsOffset;
+            for (int i = fractionsOffset, end = fractionsOffset + length; i < end; i++) {
+                final float fraction = fractions[i];
+                // the same as AlphaEvaluatorImpl
+                final int a = (int) (fromA + diffA * fraction + .5F);
+                final int r = (int) (fromR + (diffR * fraction + .5F));
+                final int g = (int) (fromG + (diffG * fraction + .5F));
+                final int b = (int) (fromB + (diffB * fraction + .5F));
+                out[i + delta] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    protected static class LinearRGBAnimator extends CCFAnimator {
+
+        // sRGB channel -> linear light in 16 bits
+        private static final int[] TO_LINEAR = new int[256];
+
+        // linear light in 12 bits -> sRGB channel, round-trips all 256 channel values exactly
+        // (maximum error for any linear value is .8 of a channel), 4KB
+        private static final byte[] TO_SRGB = new byte[1 << 12];
+
+        static {
+
+            for (int i = 0; i < 256; i++) {
+                final double c = i / 255.D;
+                final double linear = c <= .04045D
+                        ? c / 12.92D
+                        : Math.pow((c + .055D) / 1.055D, 2.4D);
+                TO_LINEAR[i] = (int) (linear * 0xFFFF + .5D);
+            }
+
+            for (int i = 0, length = TO_SRGB.length; i < length; i++) {
+                // center of the 16-bit linear range covered by this entry
+                final double linear = Math.min(1.D, ((i << 4) + 8) / (double) 0xFFFF);
+                final double c = linear <= .0031308D
+                        ? linear * 12.92D
+                        : 1.055D * Math.pow(linear, 1.D / 2.4D) - .055D;
+                TO_SRGB[i] = (byte) (int) (c * 255.D + .5D);
+            }
+        }
+
+        private final AlphaEvaluator mAlphaEvaluator;
+
+        private final int mFromR;
+        private final int mFromG;
+        private final int mFromB;
+        private final int mDiffR;
+        private final int mDiffG;
+        private final int mDiffB;
+
+        protected LinearRGBAnimator(
+                @Nullable AlphaEvaluator alphaEvaluator,
+                @ColorInt int fromColor,
+                @ColorInt int toColor
+        ) {
+            super(fromColor, toColor);
+
+            this.mAlphaEvaluator = alphaEvaluator;
+
+            this.mFromR = TO_LINEAR[(fromColor >> 16) & 0xFF];
+            this.mFromG = TO_LINEAR[(fromColor >> 8) & 0xFF];
+            this.mFromB = TO_LINEAR[fromColor & 0xFF];
+            this.mDiffR = TO_LINEAR[(toColor >> 16) & 0xFF] - mFromR;
+            this.mDiffG = TO_LINEAR[(toColor >> 8) & 0xFF] - mFromG;
+            this.mDiffB = TO_LINEAR[toColor & 0xFF] - mFromB;
+        }
+
+        @Override
+        public int getColor(float fraction) {
+
+            // tables do not cover extrapolated values
+            final float f = fraction < .0F ? .0F : (fraction > 1.F ? 1.F : fraction);
+
+            final int r = TO_SRGB[(int) (mFromR + mDiffR * f + .5F) >> 4] & 0xFF;
+            final int g = TO_SRGB[(int) (mFromG + mDiffG * f + .5F) >> 4] & 0xFF;
+            final int b = TO_SRGB[(int) (mFromB + mDiffB * f + .5F) >> 4] & 0xFF;
+
+            final int alpha = mAlphaEvaluator != null
+                    ? mAlphaEvaluator.evaluate(f)
+                    : 0xFF;
+
+            return (alpha << 24) | (r << 16) | (g << 8) | b;
         }
     }
 
@@ -322,7 +1338,6 @@ public abstract class CCFAnimator {
 
         private final float[] mFrom;
         private final float[] mTo;
-        private final float[] mOut;
 
         protected AbsHSVAnimator(
                 @Nullable AlphaEvaluator alphaEvaluator,
@@ -335,21 +1350,62 @@ public abstract class CCFAnimator {
             this.mAlphaEvaluator = alphaEvaluator;
             this.mFrom = fromHSV;
             this.mTo = toHSV;
-            this.mOut = new float[3];
         }
 
         @Override
         public int getColor(float fraction) {
 
-            mOut[0] = getHue(fraction);
-            mOut[1] = mFrom[1] + ((mTo[1] - mFrom[1]) * fraction);
-            mOut[2] = mFrom[2] + ((mTo[2] - mFrom[2]) * fraction);
+            final float h = getHue(fraction);
+            final float s = mFrom[1] + ((mTo[1] - mFrom[1]) * fraction);
+            final float v = mFrom[2] + ((mTo[2] - mFrom[2]) * fraction);
+
+            final int alpha = mAlphaEvaluator != null
+                    ? mAlphaEvaluator.evaluate(fraction)
+                    : 0xFF;
 
-            if (mAlphaEvaluator != null) {
-                return Color.HSVToColor(mAlphaEvaluator.evaluate(fraction), mOut);
+            return hsvToColor(alpha, h, s, v);
+        }
+
+        @Override
+        protected void evaluateSegment(float[] fractions, int fractionsOffset, float multiplier, float origin, float scale, int[] out, int outOffset, int outStride, int length) {
+
+            final float fromS = mFrom[1];
+            final float fromV = mFrom[2];
+            final float diffS = mTo[1] - fromS;
+            final float diffV = mTo[2] - fromV;
+            final AlphaEvaluator alphaEvaluator = mAlphaEvaluator;
+
+            float fraction;
+            int alpha;
+
+            for (int i = fractionsOffset, end = fractionsOffset + length, o = outOffset; i < end; i++, o += outStride) {
+                fraction = (fractions[i] * multiplier - origin) * scale;
+                alpha = alphaEvaluator != null
+                        ? alphaEvaluator.evaluate(fraction)
+                        : 0xFF;
+                out[o] = hsvToColor(alpha, getHue(fraction), fromS + (diffS * fraction), fromV + (diffV * fraction));
             }
+        }
 
-            return Color.HSVToColor(mOut);
+        @Override
+        protected void sweepSegment(float start, float step, int first, float multiplier, float origin, float scale, int[] out, int offset, int stride, int count) {
+
+            final float fromS = mFrom[1];
+            final float fromV = mFrom[2];
+            final float diffS = mTo[1] - fromS;
+            final float diffV = mTo[2] - fromV;
+            final AlphaEvaluator alphaEvaluator = mAlphaEvaluator;
+
+            float fraction;
+            int alpha;
+
+            for (int i = first, end = first + count, o = offset; i < end; i++, o += stride) {
+                fraction = ((start + step * i) * multiplier - origin) * scale;
+                alpha = alphaEvaluator != null
+                        ? alphaEvaluator.evaluate(fraction)
+                        : 0xFF;
+                out[o] = hsvToColor(alpha, getHue(fraction), fromS + (diffS * fraction), fromV + (diffV * fraction));
+            }
         }
 
         protected abstract float getHue(float fraction);
@@ -389,56 +1445,1018 @@ public abstract class CCFAnimator {
         protected float getHue(float fraction) {
 
             final float evaluated = mDiff * fraction;
+            return wrapHue(mFromIsBigger
+                    ? mFromH + evaluated
+                    : mFromH - evaluated);
+        }
+    }
+
+    protected static class ConcatAnimator extends CCFAnimator {
+
+        private final CCFAnimator[] mAnimators;
+        private final int mLength;
+
+        // segment bounds (`mLength + 1` non-decreasing values), null for equally sized segments
+        private final float[] mPositions;
+        // `1 / segment width` for each positioned segment
+        private final float[] mScales;
+
+        protected ConcatAnimator(@NonNull CCFAnimator[] animators) {
+            this(animators, null);
+        }
+
+        protected ConcatAnimator(@NonNull CCFAnimator[] animators, @Nullable float[] positions) {
+            super(0, 0);
+            this.mAnimators = animators;
+            this.mLength = mAnimators.length;
+            this.mPositions = positions;
+
+            if (positions != null) {
+                mScales = new float[mLength];
+                for (int i = 0; i < mLength; i++) {
+                    final float width = positions[i + 1] - positions[i];
+                    mScales[i] = width > .0F
+                            ? 1.F / width
+                            : .0F;
+                }
+            } else {
+                mScales = null;
+            }
+        }
+
+        @Override
+        public int getColor(float fraction) {
+
+            if (mPositions == null) {
+
+                final int index = (int) (fraction * mLength);
+
+                if (index >= mLength) {
+                    return mAnimators[mLength - 1].getColor(1.F);
+                }
+
+                // `fraction * length - index` instead of `(fraction % step) / step`, which
+                // loses precision near segment bounds
+                return mAnimators[index].getColor(fraction * mLength - index);
+            }
+
+            if (!(fraction > mPositions[0])) {
+                return mAnimators[0].getColor(.0F);
+            }
+
+            if (fraction >= mPositions[mLength]) {
+                return mAnimators[mLength - 1].getColor(1.F);
+            }
+
+            final int index = segmentIndex(fraction);
+            return mAnimators[index].getColor((fraction - mPositions[index]) * mScales[index]);
+        }
+
+        @Override
+        public int getColorFixed(int fraction) {
 
-            if (mFromIsBigger) {
-                final float left = mFromH + evaluated;
-                if (Float.compare(left, 360.F) > 0) {
-                    return left - 360.F;
+            if (mPositions != null) {
+                return super.getColorFixed(fraction);
+            }
+
+            // exact integer segment split, no precision loss at segment bounds
+            final long scaled = (long) clampFixed(fraction) * mLength;
+            final int index = (int) (scaled >> 16);
+
+            if (index >= mLength) {
+                return mAnimators[mLength - 1].getColorFixed(FRACTION_ONE);
+            }
+
+            return mAnimators[index].getColorFixed((int) (scaled & (FRACTION_ONE - 1)));
+        }
+
+        @Override
+        protected void evaluateColors(float[] fractions, int fractionsOffset, int[] out, int outOffset, int outStride, int length) {
+
+            // consecutive fractions that fall into the same segment are handed to it as a single run,
+            // mapped to local fractions with exactly the same arithmetic as `getColor`
+            final CCFAnimator[] animators = mAnimators;
+            final int segments = mLength;
+            final float[] positions = mPositions;
+
+            int i = fractionsOffset;
+            int o = outOffset;
+            final int end = fractionsOffset + length;
+
+            float fraction;
+            int index, run;
+
+            while (i < end) {
+
+                fraction = fractions[i];
+                run = i + 1;
+
+                if (positions == null) {
+                    index = (int) (fraction * segments);
+                    if (index >= segments) {
+                        out[o] = animators[segments - 1].getColor(1.F);
+                    } else {
+                        while (run < end && (int) (fractions[run] * segments) == index) {
+                            run++;
+                        }
+                        animators[index].evaluateSegment(fractions, i, segments, index, 1.F, out, o, outStride, run - i);
+                    }
+                } else if (!(fraction > positions[0]) || fraction >= positions[segments]) {
+                    out[o] = getColor(fraction);
+                } else {
+                    index = segmentIndex(fraction);
+                    final float lower = positions[index];
+                    final float upper = positions[index + 1];
+                    while (run < end && fractions[run] >= lower && fractions[run] < upper && fractions[run] > positions[0]) {
+                        run++;
+                    }
+                    animators[index].evaluateSegment(fractions, i, 1.F, lower, mScales[index], out, o, outStride, run - i);
+                }
+
+                o += (run - i) * outStride;
+                i = run;
+            }
+        }
+
+        @Override
+        protected void sweepColors(float start, float step, int first, int[] out, int offset, int stride, int count) {
+
+            if (!(step > .0F)) {
+                super.sweepColors(start, step, first, out, offset, stride, count);
+                return;
+            }
+
+            // fractions are increasing, so segments are walked in order and each one is dispatched
+            // once with its whole run of samples. Local fractions are computed by the segment with
+            // exactly the same arithmetic as `getColor`, so results are identical to it
+            final CCFAnimator[] animators = mAnimators;
+            final int segments = mLength;
+            final float[] positions = mPositions;
+
+            int i = first;
+            int o = offset;
+            final int end = first + count;
+
+            float fraction;
+            int index, run;
+
+            while (i < end) {
+
+                fraction = start + step * i;
+                run = i + 1;
+
+                if (positions == null) {
+                    index = (int) (fraction * segments);
+                    if (index >= segments) {
+                        fill(out, o, stride, end - i, animators[segments - 1].getColor(1.F));
+                        return;
+                    }
+                    while (run < end && (int) ((start + step * run) * segments) == index) {
+                        run++;
+                    }
+                    animators[index].sweepSegment(start, step, i, segments, index, 1.F, out, o, stride, run - i);
+                } else if (!(fraction > positions[0])) {
+                    while (run < end && !(start + step * run > positions[0])) {
+                        run++;
+                    }
+                    fill(out, o, stride, run - i, animators[0].getColor(.0F));
+                } else if (fraction >= positions[segments]) {
+                    fill(out, o, stride, end - i, animators[segments - 1].getColor(1.F));
+                    return;
+                } else {
+                    index = segmentIndex(fraction);
+                    final float upper = positions[index + 1];
+                    while (run < end && start + step * run < upper) {
+                        run++;
+                    }
+                    animators[index].sweepSegment(start, step, i, 1.F, positions[index], mScales[index], out, o, stride, run - i);
                 }
-                return left;
+
+                o += (run - i) * stride;
+                i = run;
             }
+        }
 
-            final float left = mFromH - evaluated;
-            if (Float.compare(left, .0F) < 0) {
-                return 360.F - Math.abs(left);
+        private static void fill(@NonNull int[] out, int offset, int stride, int count, @ColorInt int color) {
+            for (int i = 0, o = offset; i < count; i++, o += stride) {
+                out[o] = color;
             }
+        }
 
-            return left;
+        // rightmost segment that starts at or before specified fraction, O(log n)
+        private int segmentIndex(float fraction) {
+            int low = 0;
+            int high = mLength - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (mPositions[mid] <= fraction) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
         }
     }
 
-    protected static class ConcatAnimator extends CCFAnimator {
+    protected static class BakedAnimator extends CCFAnimator {
+
+        private final int[] mTable;
+        private final int mLast;
+        private final boolean mBlend;
+
+        protected BakedAnimator(@NonNull int[] table, boolean blend) {
+            super(0, 0);
+            this.mTable = table;
+            this.mLast = table.length - 1;
+            this.mBlend = blend;
+        }
+
+        @Override
+        public int getColor(float fraction) {
+
+            if (!(fraction > .0F)) {
+                return mTable[0];
+            }
+
+            if (fraction >= 1.F) {
+                return mTable[mLast];
+            }
+
+            final float position = fraction * mLast;
+
+            if (!mBlend) {
+                return mTable[(int) (position + .5F)];
+            }
+
+            final int index = (int) position;
+            return blend(mTable[index], mTable[index + 1], position - index);
+        }
+
+        @Override
+        public int getColorFixed(int fraction) {
+
+            final long position = (long) clampFixed(fraction) * mLast;
+
+            if (!mBlend) {
+                return mTable[(int) ((position + (FRACTION_ONE >> 1)) >> 16)];
+            }
+
+            final int index = (int) (position >> 16);
+            if (index >= mLast) {
+                return mTable[mLast];
+            }
+
+            return interpolateFixed(mTable[index], mTable[index + 1], (int) (position & (FRACTION_ONE - 1)));
+        }
+
+        private static int blend(int from, int to, float fraction) {
+
+            if (from == to) {
+                return from;
+            }
+
+            final int a = lerpChannel(from >>> 24,         to >>> 24,          fraction);
+            final int r = lerpChannel((from >> 16) & 0xFF, (to >> 16) & 0xFF,  fraction);
+            final int g = lerpChannel((from >> 8) & 0xFF,  (to >> 8) & 0xFF,   fraction);
+            final int b = lerpChannel(from & 0xFF,         to & 0xFF,          fraction);
+
+            return (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    protected static class CompiledAnimator extends CCFAnimator {
+
+        private static final byte MODE_RGB = 0;
+        private static final byte MODE_LINEAR_RGB = 1;
+        private static final byte MODE_HSV = 2;
+        private static final byte MODE_DELEGATE = 3;
+
+        private static final int CHANNELS = 8;
 
-        private final CCFAnimator[] mAnimators;
         private final int mLength;
-        private final float mFractionStep;
+        private final boolean mUniform;
+
+        // `mLength + 1` segment bounds, start of each segment (fraction 0, could be before its bound)
+        // & `1 / segment width`
+        private final float[] mBounds;
+        private final float[] mOrigins;
+        private final float[] mScales;
+        private final byte[] mModes;
+
+        // start and difference of alpha & of each channel (rgb for MODE_RGB, 16-bit linear for MODE_LINEAR_RGB),
+        // `CHANNELS` values of a segment are adjacent, so a segment is read from a single array
+        private final int[] mChannels;
+
+        // for MODE_HSV, null if there are no such segments. Hue difference is signed and wraps around 360
+        private final float[] mFromH;
+        private final float[] mDiffH;
+        private final float[] mFromS;
+        private final float[] mDiffS;
+        private final float[] mFromV;
+        private final float[] mDiffV;
+
+        // for MODE_DELEGATE, null if there are no such segments
+        private final CCFAnimator[] mDelegates;
+
+        protected CompiledAnimator(@NonNull CCFAnimator animator) {
+            super(0, 0);
 
-        protected ConcatAnimator(@NonNull CCFAnimator[] animators) {
+            final int length = countSegments(animator);
+
+            this.mLength = length;
+            this.mUniform = isUniform(animator);
+            this.mBounds = new float[length + 1];
+            this.mOrigins = new float[length];
+            this.mScales = new float[length];
+            this.mModes = new byte[length];
+            this.mChannels = new int[length * CHANNELS];
+
+            if (hasMode(animator, MODE_HSV)) {
+                this.mFromH = new float[length];
+                this.mDiffH = new float[length];
+                this.mFromS = new float[length];
+                this.mDiffS = new float[length];
+                this.mFromV = new float[length];
+                this.mDiffV = new float[length];
+            } else {
+                this.mFromH = null;
+                this.mDiffH = null;
+                this.mFromS = null;
+                this.mDiffS = null;
+                this.mFromV = null;
+                this.mDiffV = null;
+            }
+
+            this.mDelegates = hasMode(animator, MODE_DELEGATE)
+                    ? new CCFAnimator[length]
+                    : null;
+
+            flatten(animator, 0, .0F, 1.F, .0F, 1.F);
+        }
+
+        @Override
+        public int getColor(float fraction) {
+
+            final float f = !(fraction > .0F) ? .0F : (fraction > 1.F ? 1.F : fraction);
+
+            if (mUniform) {
+                if (f >= 1.F) {
+                    return evaluate(mLength - 1, 1.F);
+                }
+                // the same split as of ConcatAnimator
+                final int index = (int) (f * mLength);
+                return evaluate(index, f * mLength - index);
+            }
+
+            final int index = segmentIndex(f);
+            final float local = (f - mOrigins[index]) * mScales[index];
+            return evaluate(index, local < .0F ? .0F : (local > 1.F ? 1.F : local));
+        }
+
+        private int evaluate(int index, float fraction) {
+
+            final int mode = mModes[index];
+
+            if (mode == MODE_DELEGATE) {
+                return mDelegates[index].getColor(fraction);
+            }
+
+            final int[] channels = mChannels;
+            final int i = index * CHANNELS;
+
+            final int alpha = channels[i + 1] == 0
+                    ? channels[i]
+                    : (int) (channels[i] + channels[i + 1] * fraction + .5F);
+
+            if (mode == MODE_RGB) {
+                final int r = (int) (channels[i + 2] + (channels[i + 3] * fraction + .5F));
+                final int g = (int) (channels[i + 4] + (channels[i + 5] * fraction + .5F));
+                final int b = (int) (channels[i + 6] + (channels[i + 7] * fraction + .5F));
+                return (alpha << 24) | (r << 16) | (g << 8) | b;
+            }
+
+            if (mode == MODE_LINEAR_RGB) {
+                final byte[] toSRGB = LinearRGBAnimator.TO_SRGB;
+                final int r = toSRGB[(int) (channels[i + 2] + channels[i + 3] * fraction + .5F) >> 4] & 0xFF;
+                final int g = toSRGB[(int) (channels[i + 4] + channels[i + 5] * fraction + .5F) >> 4] & 0xFF;
+                final int b = toSRGB[(int) (channels[i + 6] + channels[i + 7] * fraction + .5F) >> 4] & 0xFF;
+                return (alpha << 24) | (r << 16) | (g << 8) | b;
+            }
+
+            return hsvToColor(
+                    alpha,
+                    wrapHue(mFromH[index] + (mDiffH[index] * fraction)),
+                    mFromS[index] + (mDiffS[index] * fraction),
+                    mFromV[index] + (mDiffV[index] * fraction)
+            );
+        }
+
+        // rightmost segment that starts at or before specified fraction, O(log n)
+        private int segmentIndex(float fraction) {
+            int low = 0;
+            int high = mLength - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (mBounds[mid] <= fraction) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        // `start` and `end` map animator fractions 0 and 1, `regionStart` and `regionEnd` bound fractions
+        // that are evaluated by this animator (fractions outside of a positioned concat are clamped).
+        // Stores segments starting at `index`, returns index of the next segment
+        private int flatten(@NonNull CCFAnimator animator, int index, float start, float end, float regionStart, float regionEnd) {
+
+            if (animator instanceof ConcatAnimator) {
+
+                final ConcatAnimator concat = (ConcatAnimator) animator;
+                final int length = concat.mLength;
+                final float width = end - start;
+
+                for (int i = 0; i < length; i++) {
+                    final float childStart;
+                    final float childEnd;
+                    if (concat.mPositions != null) {
+                        childStart = start + width * concat.mPositions[i];
+                        childEnd = start + width * concat.mPositions[i + 1];
+                    } else {
+                        childStart = start + width * i / length;
+                        childEnd = start + width * (i + 1) / length;
+                    }
+                    index = flatten(
+                            concat.mAnimators[i],
+                            index,
+                            childStart,
+                            childEnd,
+                            i == 0 ? regionStart : childStart,
+                            i == length - 1 ? regionEnd : childEnd
+                    );
+                }
+                return index;
+            }
+
+            mBounds[index] = regionStart;
+            mBounds[index + 1] = regionEnd;
+            mOrigins[index] = start;
+            mScales[index] = end > start
+                    ? 1.F / (end - start)
+                    : .0F;
+
+            final byte mode = modeOf(animator);
+            mModes[index] = mode;
+
+            if (mode == MODE_RGB) {
+                final RGBAnimator rgb = (RGBAnimator) animator;
+                storeAlpha(index, rgb.mAlphaEvaluator);
+                storeChannels(
+                        index,
+                        rgb.mFromColor[0], rgb.mToColor[0] - rgb.mFromColor[0],
+                        rgb.mFromColor[1], rgb.mToColor[1] - rgb.mFromColor[1],
+                        rgb.mFromColor[2], rgb.mToColor[2] - rgb.mFromColor[2]
+                );
+            } else if (mode == MODE_LINEAR_RGB) {
+                final LinearRGBAnimator linear = (LinearRGBAnimator) animator;
+                storeAlpha(index, linear.mAlphaEvaluator);
+                storeChannels(
+                        index,
+                        linear.mFromR, linear.mDiffR,
+                        linear.mFromG, linear.mDiffG,
+                        linear.mFromB, linear.mDiffB
+                );
+            } else if (mode == MODE_HSV) {
+                final AbsHSVAnimator hsv = (AbsHSVAnimator) animator;
+                storeAlpha(index, hsv.mAlphaEvaluator);
+                final float diffH;
+                if (animator instanceof HSVBackwardsAnimator) {
+                    final HSVBackwardsAnimator backwards = (HSVBackwardsAnimator) animator;
+                    diffH = backwards.mFromIsBigger
+                            ? backwards.mDiff
+                            : -backwards.mDiff;
+                } else {
+                    diffH = ((HSVAnimator) animator).mDiff;
+                }
+                mFromH[index] = hsv.mFrom[0];
+                mDiffH[index] = diffH;
+                mFromS[index] = hsv.mFrom[1];
+                mDiffS[index] = hsv.mTo[1] - hsv.mFrom[1];
+                mFromV[index] = hsv.mFrom[2];
+                mDiffV[index] = hsv.mTo[2] - hsv.mFrom[2];
+            } else {
+                mDelegates[index] = animator;
+            }
+
+            return index + 1;
+        }
+
+        private static byte modeOf(@NonNull CCFAnimator animator) {
+            if (animator instanceof RGBAnimator && hasLinearAlpha(((RGBAnimator) animator).mAlphaEvaluator)) {
+                return MODE_RGB;
+            }
+            if (animator instanceof LinearRGBAnimator && hasLinearAlpha(((LinearRGBAnimator) animator).mAlphaEvaluator)) {
+                return MODE_LINEAR_RGB;
+            }
+            if ((animator instanceof HSVAnimator || animator instanceof HSVBackwardsAnimator)
+                    && hasLinearAlpha(((AbsHSVAnimator) animator).mAlphaEvaluator)) {
+                return MODE_HSV;
+            }
+            return MODE_DELEGATE;
+        }
+
+        // whether any leaf of specified animator is compiled with specified mode
+        private static boolean hasMode(@NonNull CCFAnimator animator, byte mode) {
+            if (animator instanceof ConcatAnimator) {
+                for (CCFAnimator child : ((ConcatAnimator) animator).mAnimators) {
+                    if (hasMode(child, mode)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return modeOf(animator) == mode;
+        }
+
+        private static boolean hasLinearAlpha(@Nullable AlphaEvaluator alphaEvaluator) {
+            return alphaEvaluator == null || alphaEvaluator instanceof AlphaEvaluatorImpl;
+        }
+
+        private void storeAlpha(int index, @Nullable AlphaEvaluator alphaEvaluator) {
+            final int i = index * CHANNELS;
+            if (alphaEvaluator == null) {
+                mChannels[i] = 0xFF;
+                mChannels[i + 1] = 0;
+            } else {
+                final AlphaEvaluatorImpl impl = (AlphaEvaluatorImpl) alphaEvaluator;
+                mChannels[i] = impl.mFromAlpha;
+                mChannels[i + 1] = impl.mToAlpha - impl.mFromAlpha;
+            }
+        }
+
+        private void storeChannels(int index, int fromR, int diffR, int fromG, int diffG, int fromB, int diffB) {
+            final int i = index * CHANNELS;
+            mChannels[i + 2] = fromR;
+            mChannels[i + 3] = diffR;
+            mChannels[i + 4] = fromG;
+            mChannels[i + 5] = diffG;
+            mChannels[i + 6] = fromB;
+            mChannels[i + 7] = diffB;
+        }
+    }
+
+    protected static class InstrumentedAnimator extends CCFAnimator {
+
+        private final CCFAnimator mAnimator;
+
+        protected InstrumentedAnimator(@NonNull CCFAnimator animator) {
             super(0, 0);
-            this.mAnimators = animators;
-            this.mLength = mAnimators.length;
-            this.mFractionStep = 1.F / mLength;
+            this.mAnimator = animator;
         }
 
         @Override
         public int getColor(float fraction) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                return mAnimator.getColor(fraction);
+            }
+            final long start = System.nanoTime();
+            final int color = mAnimator.getColor(fraction);
+            metrics.onEvaluated(mAnimator, 1, System.nanoTime() - start);
+            return color;
+        }
+
+        @Override
+        public int getColorFixed(int fraction) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                return mAnimator.getColorFixed(fraction);
+            }
+            final long start = System.nanoTime();
+            final int color = mAnimator.getColorFixed(fraction);
+            metrics.onEvaluated(mAnimator, 1, System.nanoTime() - start);
+            return color;
+        }
+
+        @Override
+        protected void evaluateColors(float[] fractions, int fractionsOffset, int[] out, int outOffset, int outStride, int length) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                mAnimator.evaluateColors(fractions, fractionsOffset, out, outOffset, outStride, length);
+                return;
+            }
+            final long start = System.nanoTime();
+            mAnimator.evaluateColors(fractions, fractionsOffset, out, outOffset, outStride, length);
+            metrics.onEvaluated(mAnimator, length, System.nanoTime() - start);
+        }
+
+        @Override
+        protected void sweepColors(float start, float step, int first, int[] out, int offset, int stride, int count) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                mAnimator.sweepColors(start, step, first, out, offset, stride, count);
+                return;
+            }
+            final long startNanos = System.nanoTime();
+            mAnimator.sweepColors(start, step, first, out, offset, stride, count);
+            metrics.onEvaluated(mAnimator, count, System.nanoTime() - startNanos);
+        }
+
+        @Override
+        protected void evaluateSegment(float[] fractions, int fractionsOffset, float multiplier, float origin, float scale, int[] out, int outOffset, int outStride, int length) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                mAnimator.evaluateSegment(fractions, fractionsOffset, multiplier, origin, scale, out, outOffset, outStride, length);
+                return;
+            }
+            final long start = System.nanoTime();
+            mAnimator.evaluateSegment(fractions, fractionsOffset, multiplier, origin, scale, out, outOffset, outStride, length);
+            metrics.onEvaluated(mAnimator, length, System.nanoTime() - start);
+        }
+
+        @Override
+        protected void sweepSegment(float start, float step, int first, float multiplier, float origin, float scale, int[] out, int offset, int stride, int count) {
+            final CCFMetrics metrics = sMetrics;
+            if (metrics == null) {
+                mAnimator.sweepSegment(start, step, first, multiplier, origin, scale, out, offset, stride, count);
+                return;
+            }
+            final long startNanos = System.nanoTime();
+            mAnimator.sweepSegment(start, step, first, multiplier, origin, scale, out, offset, stride, count);
+            metrics.onEvaluated(mAnimator, count, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Evaluates colors for a sweep of fractions with a fixed step (pixel rows, fixed-rate frames)
+     * one by one. Within a segment each channel changes by a constant delta, so rgb, argb, alpha,
+     * linear rgb and hsv animators are advanced by additions only. Segment bounds of concatenated animators
+     * are crossed by re-locating the leaf animator once per segment. Accumulated values are re-anchored
+     * every {@link #ANCHOR_INTERVAL} steps, so error is bounded independently of sweep length
+     * (result differs from {@link #getColor(float)} by at most 1 per channel). Fractions outside
+     * [0..1] are clamped. Instance is reusable via {@link #reset(CCFAnimator, float, float)}
+     * and does not allocate. Not thread-safe
+     */
+    public static class Stepper {
+
+        public static final int ANCHOR_INTERVAL = 256;
+
+        private static final int LEAF_CONSTANT      = 0;
+        private static final int LEAF_RGB           = 1;
+        private static final int LEAF_LINEAR_RGB    = 2;
+        private static final int LEAF_HSV           = 3;
+        private static final int LEAF_GENERIC       = 4;
+
+        private static final int ALPHA_CONSTANT     = 0;
+        private static final int ALPHA_LINEAR       = 1;
+        private static final int ALPHA_EVALUATOR    = 2;
+
+        // fixed-point accumulators have 32 fractional bits
+        private static final double ONE = 4294967296.D;
+        private static final long HALF = 1L << 31;
+
+        private CCFAnimator mRoot;
+        private float mStart;
+        private float mStep;
+        private int mIndex;
+
+        // global fractions where current leaf mapping is valid [lo, hi)
+        private float mLo;
+        private float mHi;
+
+        // local = (global - mOffset) * mScale
+        private float mOffset;
+        private float mScale;
+
+        private CCFAnimator mLeaf;
+        private int mLeafType;
+        private int mAlphaType;
+        private AlphaEvaluator mAlphaEvaluator;
+        private int mStepsToAnchor;
+
+        private int mConstantColor;
+
+        private float mLocal;
+        private float mLocalStep;
+
+        // channels: rgb, linear rgb & alpha as fixed-point, hsv as float
+        private long mR, mG, mB, mA;
+        private long mDR, mDG, mDB, mDA;
+        private float mH, mS, mV;
+        private float mDH, mDS, mDV;
+        private boolean mWrapHue;
+
+        /**
+         * Starts a new sweep
+         *
+         * @param animator to evaluate
+         * @param start fraction of the first color
+         * @param step difference between two consecutive fractions (could be negative)
+         * @return self
+         */
+        public Stepper reset(@NonNull CCFAnimator animator, float start, float step) {
+            mRoot = animator;
+            mStart = start;
+            mStep = step;
+            mIndex = 0;
+            // force locate on the first step
+            mLo = Float.POSITIVE_INFINITY;
+            mHi = Float.NEGATIVE_INFINITY;
+            return this;
+        }
+
+        /**
+         * @return fraction of the color that will be returned by next call to {@link #next()}
+         */
+        public float fraction() {
+            return mStart + mStep * mIndex;
+        }
 
-            final int index;
-            final float stepFraction;
+        /**
+         * @return next color of the sweep
+         */
+        public int next() {
 
-            {
-                final int i = (int) (fraction / mFractionStep);
+            final float global = mStart + mStep * mIndex;
+            mIndex += 1;
 
-                if (i >= mLength) {
-                    index = mLength - 1;
-                    stepFraction = 1.F;
+            if (!(global >= mLo && global < mHi)) {
+                locate(global);
+                return color();
+            }
+
+            if (--mStepsToAnchor <= 0) {
+                anchor((global - mOffset) * mScale);
+                return color();
+            }
+
+            switch (mLeafType) {
+
+                case LEAF_RGB:
+                case LEAF_LINEAR_RGB:
+                    mR += mDR;
+                    mG += mDG;
+                    mB += mDB;
+                    break;
+
+                case LEAF_HSV:
+                    mH += mDH;
+                    mS += mDS;
+                    mV += mDV;
+                    break;
+
+                case LEAF_GENERIC:
+                    mLocal += mLocalStep;
+                    break;
+            }
+
+            if (mAlphaType == ALPHA_LINEAR) {
+                mA += mDA;
+            } else if (mAlphaType == ALPHA_EVALUATOR && mLeafType != LEAF_GENERIC) {
+                mLocal += mLocalStep;
+            }
+
+            return color();
+        }
+
+        private int color() {
+
+            final int alpha;
+            switch (mAlphaType) {
+                case ALPHA_LINEAR:
+                    alpha = (int) ((mA + HALF) >> 32);
+                    break;
+                case ALPHA_EVALUATOR:
+                    alpha = mAlphaEvaluator.evaluate(mLocal);
+                    break;
+                default:
+                    alpha = 0xFF;
+                    break;
+            }
+
+            switch (mLeafType) {
+
+                case LEAF_CONSTANT:
+                    return mConstantColor;
+
+                case LEAF_RGB:
+                    return (alpha << 24)
+                            | ((int) ((mR + HALF) >> 32) << 16)
+                            | ((int) ((mG + HALF) >> 32) << 8)
+                            | (int) ((mB + HALF) >> 32);
+
+                case LEAF_LINEAR_RGB:
+                    return (alpha << 24)
+                            | ((LinearRGBAnimator.TO_SRGB[(int) ((mR + HALF) >> 36)] & 0xFF) << 16)
+                            | ((LinearRGBAnimator.TO_SRGB[(int) ((mG + HALF) >> 36)] & 0xFF) << 8)
+                            | (LinearRGBAnimator.TO_SRGB[(int) ((mB + HALF) >> 36)] & 0xFF);
+
+                case LEAF_HSV: {
+                    return hsvToColor(alpha, mWrapHue ? wrapHue(mH) : mH, mS, mV);
+                }
+
+                default:
+                    return mLeaf.getColor(mLocal);
+            }
+        }
+
+        private void locate(float global) {
+
+            final CCFAnimator root = mRoot;
+
+            if (!(global > .0F) || global >= 1.F) {
+                // clamped, constant until sweep comes back into [0..1]
+                final boolean before = !(global > .0F);
+                mLeafType = LEAF_CONSTANT;
+                mAlphaType = ALPHA_CONSTANT;
+                mConstantColor = root.getColor(before ? .0F : 1.F);
+                mLo = before ? Float.NEGATIVE_INFINITY : 1.F;
+                mHi = before ? Float.MIN_VALUE : Float.POSITIVE_INFINITY;
+                return;
+            }
+
+            float lo = .0F;
+            float hi = 1.F;
+            float offset = .0F;
+            float scale = 1.F;
+
+            CCFAnimator node = root;
+
+            while (node instanceof ConcatAnimator) {
+
+                final ConcatAnimator concat = (ConcatAnimator) node;
+                final float local = (global - offset) * scale;
+                final int length = concat.mLength;
+
+                final int index;
+                final float segmentStart;
+                final float segmentEnd;
+                final float segmentScale;
+
+                if (concat.mPositions == null) {
+                    index = Math.min((int) (local * length), length - 1);
+                    segmentStart = (float) index / length;
+                    segmentEnd = (float) (index + 1) / length;
+                    segmentScale = length;
                 } else {
-                    index = i;
-                    stepFraction = (fraction % mFractionStep) / mFractionStep;
+
+                    final float[] positions = concat.mPositions;
+
+                    if (!(local > positions[0]) || local >= positions[length]) {
+                        // clamped part of a positioned concat
+                        final boolean before = !(local > positions[0]);
+                        mLeafType = LEAF_CONSTANT;
+                        mAlphaType = ALPHA_CONSTANT;
+                        mConstantColor = before
+                                ? concat.mAnimators[0].getColor(.0F)
+                                : concat.mAnimators[length - 1].getColor(1.F);
+                        mLo = before ? lo : Math.max(lo, offset + positions[length] / scale);
+                        mHi = before ? Math.min(hi, offset + positions[0] / scale) : hi;
+                        return;
+                    }
+
+                    index = concat.segmentIndex(local);
+                    segmentStart = positions[index];
+                    segmentEnd = positions[index + 1];
+                    segmentScale = concat.mScales[index];
                 }
+
+                lo = Math.max(lo, offset + segmentStart / scale);
+                hi = Math.min(hi, offset + segmentEnd / scale);
+                offset = offset + segmentStart / scale;
+                scale = scale * segmentScale;
+
+                node = concat.mAnimators[index];
             }
 
-            return mAnimators[index].getColor(stepFraction);
+            mLo = lo;
+            // last segment includes its end
+            mHi = hi >= 1.F ? Math.nextUp(1.F) : hi;
+            mOffset = offset;
+            mScale = scale;
+            mLocalStep = mStep * scale;
+
+            mLeaf = node;
+            mLeafType = leafType(node);
+            mAlphaType = alphaType(node);
+            mAlphaEvaluator = alphaEvaluatorOf(node);
+
+            anchor((global - offset) * scale);
+        }
+
+        private void anchor(float local) {
+
+            mStepsToAnchor = ANCHOR_INTERVAL;
+            mLocal = local;
+
+            final double step = mLocalStep;
+
+            switch (mLeafType) {
+
+                case LEAF_RGB: {
+                    final RGBAnimator rgb = (RGBAnimator) mLeaf;
+                    mR = accumulator(rgb.mFromColor[0], rgb.mToColor[0], local);
+                    mG = accumulator(rgb.mFromColor[1], rgb.mToColor[1], local);
+                    mB = accumulator(rgb.mFromColor[2], rgb.mToColor[2], local);
+                    mDR = (long) ((rgb.mToColor[0] - rgb.mFromColor[0]) * step * ONE);
+                    mDG = (long) ((rgb.mToColor[1] - rgb.mFromColor[1]) * step * ONE);
+                    mDB = (long) ((rgb.mToColor[2] - rgb.mFromColor[2]) * step * ONE);
+                    break;
+                }
+
+                case LEAF_LINEAR_RGB: {
+                    final LinearRGBAnimator linear = (LinearRGBAnimator) mLeaf;
+                    // table lookups do not cover extrapolated values
+                    final float f = local < .0F ? .0F : (local > 1.F ? 1.F : local);
+                    mR = accumulator(linear.mFromR, linear.mFromR + linear.mDiffR, f);
+                    mG = accumulator(linear.mFromG, linear.mFromG + linear.mDiffG, f);
+                    mB = accumulator(linear.mFromB, linear.mFromB + linear.mDiffB, f);
+                    mDR = (long) (linear.mDiffR * step * ONE);
+                    mDG = (long) (linear.mDiffG * step * ONE);
+                    mDB = (long) (linear.mDiffB * step * ONE);
+                    break;
+                }
+
+                case LEAF_HSV: {
+                    final AbsHSVAnimator hsv = (AbsHSVAnimator) mLeaf;
+                    final float hueStart;
+                    final float hueDelta;
+                    if (hsv instanceof HSVBackwardsAnimator) {
+                        final HSVBackwardsAnimator backwards = (HSVBackwardsAnimator) hsv;
+                        hueStart = backwards.mFromH;
+                        hueDelta = backwards.mFromIsBigger ? backwards.mDiff : -backwards.mDiff;
+                        mWrapHue = true;
+                    } else {
+                        final HSVAnimator forward = (HSVAnimator) hsv;
+                        hueStart = forward.mFromH;
+                        hueDelta = forward.mDiff;
+                        mWrapHue = false;
+                    }
+                    mH = hueStart + hueDelta * local;
+                    mS = hsv.mFrom[1] + ((hsv.mTo[1] - hsv.mFrom[1]) * local);
+                    mV = hsv.mFrom[2] + ((hsv.mTo[2] - hsv.mFrom[2]) * local);
+                    mDH = (float) (hueDelta * step);
+                    mDS = (float) ((hsv.mTo[1] - hsv.mFrom[1]) * step);
+                    mDV = (float) ((hsv.mTo[2] - hsv.mFrom[2]) * step);
+                    break;
+                }
+            }
+
+            if (mAlphaType == ALPHA_LINEAR) {
+                final AlphaEvaluatorImpl alpha = (AlphaEvaluatorImpl) mAlphaEvaluator;
+                mA = accumulator(alpha.mFromAlpha, alpha.mToAlpha, local);
+                mDA = (long) ((alpha.mToAlpha - alpha.mFromAlpha) * step * ONE);
+            }
+        }
+
+        private static long accumulator(int from, int to, float fraction) {
+            return (long) ((from + (to - from) * (double) fraction) * ONE);
+        }
+
+        private static int leafType(@NonNull CCFAnimator leaf) {
+            final Class<?> type = leaf.getClass();
+            if (type == RGBAnimator.class) {
+                return LEAF_RGB;
+            }
+            if (type == LinearRGBAnimator.class) {
+                return LEAF_LINEAR_RGB;
+            }
+            // subclasses could override `getHue`
+            if (type == HSVAnimator.class || type == HSVBackwardsAnimator.class) {
+                return LEAF_HSV;
+            }
+            return LEAF_GENERIC;
+        }
+
+        private static int alphaType(@NonNull CCFAnimator leaf) {
+            if (leafType(leaf) == LEAF_GENERIC) {
+                // alpha is evaluated by the animator itself
+                return ALPHA_CONSTANT;
+            }
+            final AlphaEvaluator evaluator = alphaEvaluatorOf(leaf);
+            if (evaluator == null) {
+                return ALPHA_CONSTANT;
+            }
+            if (evaluator instanceof AlphaEvaluatorImpl) {
+                return ALPHA_LINEAR;
+            }
+            return ALPHA_EVALUATOR;
+        }
+
+        @Nullable
+        private static AlphaEvaluator alphaEvaluatorOf(@NonNull CCFAnimator leaf) {
+            if (leaf instanceof RGBAnimator) {
+                return ((RGBAnimator) leaf).mAlphaEvaluator;
+            }
+            if (leaf instanceof LinearRGBAnimator) {
+                return ((LinearRGBAnimator) leaf).mAlphaEvaluator;
+            }
+            if (leaf instanceof AbsHSVAnimator) {
+                return ((AbsHSVAnimator) leaf).mAlphaEvaluator;
+            }
+            return null;
         }
     }
 }
@@ -0,0 +1,341 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Size;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in bounded cache of {@link CCFAnimator} instances created by factory methods. As built-in animators
+ * are immutable and thread-safe, one instance is shared for the same mode and colors instead of creating
+ * a new one (with all its arrays) every time. When cache is full, least recently used animator is evicted.
+ * Hits and misses are counted, so cache could be sized properly.
+ *
+ * Lookups do not allocate, a new key is created only when an animator is added to the cache.
+ * All methods are thread-safe
+ */
+public class CCFAnimatorCache {
+
+    private static final int MODE_RGB           = 0;
+    private static final int MODE_ARGB          = 1;
+    private static final int MODE_ALPHA         = 2;
+    private static final int MODE_HSV           = 3;
+    private static final int MODE_LINEAR_RGB    = 4;
+    private static final int MODE_LINEAR_ARGB   = 5;
+
+    private final int mMaxSize;
+    private final Map<Key, CCFAnimator> mMap;
+
+    // reused for lookups, guarded by `this`
+    private final Key mProbe;
+    private final int[] mProbeValues;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    /**
+     * @param maxSize maximum number of cached animators
+     */
+    public CCFAnimatorCache(@IntRange(from = 1) int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1, specified: " + maxSize);
+        }
+
+        mMaxSize = maxSize;
+        mMap = new LinkedHashMap<Key, CCFAnimator>(16, .75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CCFAnimator> eldest) {
+                if (size() > mMaxSize) {
+                    mEvictionCount += 1;
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        mProbe = new Key();
+        mProbeValues = new int[4];
+    }
+
+    /**
+     * @see CCFAnimator#rgb(int, int)
+     */
+    public CCFAnimator rgb(@ColorInt int fromColor, @ColorInt int toColor) {
+        return get(MODE_RGB, fromColor, toColor, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#rgb(int[])
+     */
+    public CCFAnimator rgb(@Size(min = 2) int[] colors) {
+        return get(MODE_RGB, colors);
+    }
+
+    /**
+     * @see CCFAnimator#argb(int, int)
+     */
+    public CCFAnimator argb(@ColorInt int fromColor, @ColorInt int toColor) {
+        return get(MODE_ARGB, fromColor, toColor, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#argb(int[])
+     */
+    public CCFAnimator argb(@Size(min = 2) int[] colors) {
+        return get(MODE_ARGB, colors);
+    }
+
+    /**
+     * @see CCFAnimator#alpha(int, int)
+     */
+    public CCFAnimator alpha(@ColorInt int color, @IntRange(from = 0, to = 255) int toAlpha) {
+        return get(MODE_ALPHA, color, toAlpha, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#hsv(int, int)
+     */
+    public CCFAnimator hsv(@ColorInt int fromColor, @ColorInt int toColor) {
+        return get(MODE_HSV, fromColor, toColor, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#hsv(int, int, int, int)
+     */
+    public CCFAnimator hsv(
+            @ColorInt int fromColor,
+            @ColorInt int toColor,
+            @IntRange(from = 0, to = 255) int fromAlpha,
+            @IntRange(from = 0, to = 255) int toAlpha
+    ) {
+        return get(MODE_HSV, fromColor, toColor, fromAlpha, toAlpha);
+    }
+
+    /**
+     * @see CCFAnimator#hsv(int[])
+     */
+    public CCFAnimator hsv(@Size(min = 2) int[] colors) {
+        return get(MODE_HSV, colors);
+    }
+
+    /**
+     * @see CCFAnimator#linearRgb(int, int)
+     */
+    public CCFAnimator linearRgb(@ColorInt int fromColor, @ColorInt int toColor) {
+        return get(MODE_LINEAR_RGB, fromColor, toColor, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#linearRgb(int[])
+     */
+    public CCFAnimator linearRgb(@Size(min = 2) int[] colors) {
+        return get(MODE_LINEAR_RGB, colors);
+    }
+
+    /**
+     * @see CCFAnimator#linearArgb(int, int)
+     */
+    public CCFAnimator linearArgb(@ColorInt int fromColor, @ColorInt int toColor) {
+        return get(MODE_LINEAR_ARGB, fromColor, toColor, 0, 0);
+    }
+
+    /**
+     * @see CCFAnimator#linearArgb(int[])
+     */
+    public CCFAnimator linearArgb(@Size(min = 2) int[] colors) {
+        return get(MODE_LINEAR_ARGB, colors);
+    }
+
+    /**
+     * @return number of lookups that returned a cached animator
+     */
+    public synchronized int hitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return number of lookups that created a new animator
+     */
+    public synchronized int missCount() {
+        return mMissCount;
+    }
+
+    /**
+     * @return number of animators that were evicted because cache was full
+     */
+    public synchronized int evictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * @return number of currently cached animators
+     */
+    public synchronized int size() {
+        return mMap.size();
+    }
+
+    public int maxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Removes all cached animators (counters are kept)
+     */
+    public synchronized void evictAll() {
+        mMap.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CCFAnimatorCache{" +
+                "maxSize=" + mMaxSize +
+                ", size=" + mMap.size() +
+                ", hitCount=" + mHitCount +
+                ", missCount=" + mMissCount +
+                ", evictionCount=" + mEvictionCount +
+                '}';
+    }
+
+    private synchronized CCFAnimator get(int mode, int first, int second, int third, int fourth) {
+
+        mProbeValues[0] = first;
+        mProbeValues[1] = second;
+        mProbeValues[2] = third;
+        mProbeValues[3] = fourth;
+        mProbe.set(mode, mProbeValues);
+
+        CCFAnimator animator = mMap.get(mProbe);
+        if (animator != null) {
+            mHitCount += 1;
+            return animator;
+        }
+
+        mMissCount += 1;
+
+        switch (mode) {
+
+            case MODE_RGB:
+                animator = CCFAnimator.rgb(first, second);
+                break;
+
+            case MODE_ARGB:
+                animator = CCFAnimator.argb(first, second);
+                break;
+
+            case MODE_ALPHA:
+                animator = CCFAnimator.alpha(first, second);
+                break;
+
+            case MODE_HSV:
+                animator = CCFAnimator.hsv(first, second, third, fourth);
+                break;
+
+            case MODE_LINEAR_RGB:
+                animator = CCFAnimator.linearRgb(first, second);
+                break;
+
+            case MODE_LINEAR_ARGB:
+                animator = CCFAnimator.linearArgb(first, second);
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown mode: " + mode);
+        }
+
+        mMap.put(mProbe.copy(), animator);
+
+        return animator;
+    }
+
+    private synchronized CCFAnimator get(int mode, @NonNull int[] colors) {
+
+        // array keys are distinguished from pair keys by mode
+        final int arrayMode = mode | 0x10;
+
+        mProbe.set(arrayMode, colors);
+
+        CCFAnimator animator = mMap.get(mProbe);
+        if (animator != null) {
+            mHitCount += 1;
+            // do not hold a reference to caller's array
+            mProbe.set(0, mProbeValues);
+            return animator;
+        }
+
+        mMissCount += 1;
+
+        switch (mode) {
+
+            case MODE_RGB:
+                animator = CCFAnimator.rgb(colors);
+                break;
+
+            case MODE_ARGB:
+                animator = CCFAnimator.argb(colors);
+                break;
+
+            case MODE_HSV:
+                animator = CCFAnimator.hsv(colors);
+                break;
+
+            case MODE_LINEAR_RGB:
+                animator = CCFAnimator.linearRgb(colors);
+                break;
+
+            case MODE_LINEAR_ARGB:
+                animator = CCFAnimator.linearArgb(colors);
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown mode: " + mode);
+        }
+
+        mMap.put(mProbe.copy(), animator);
+        mProbe.set(0, mProbeValues);
+
+        return animator;
+    }
+
+    private static class Key {
+
+        private int mMode;
+        private int[] mValues;
+        private int mHash;
+
+        void set(int mode, int[] values) {
+            mMode = mode;
+            mValues = values;
+            mHash = 31 * mode + Arrays.hashCode(values);
+        }
+
+        Key copy() {
+            final Key key = new Key();
+            key.mMode = mMode;
+            key.mValues = mValues.clone();
+            key.mHash = mHash;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Key key = (Key) o;
+            return mMode == key.mMode
+                    && mHash == key.mHash
+                    && Arrays.equals(mValues, key.mValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+    }
+}
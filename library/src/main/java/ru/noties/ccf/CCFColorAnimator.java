@@ -0,0 +1,393 @@
+package ru.noties.ccf;
+
+import android.animation.TimeInterpolator;
+import android.support.annotation.ColorInt;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Color animation whose target could be changed while it's running. A new animation always starts
+ * from the currently displayed color (no jump back), so rapid toggles stay smooth. ARGB channels are
+ * interpolated independently (as {@link CCFAnimator#argb(int, int)}).
+ *
+ * {@link #MODE_TWEEN} runs a new animation of `duration` (with an optional interpolator) from the current color.
+ * {@link #MODE_SPRING} is a critically damped spring (no oscillation, settles in about `duration`)
+ * that keeps the current velocity, so retargeting mid-flight bends the motion instead of restarting it.
+ *
+ * All state is kept in primitive fields and a single frame callback is reused as a frame ticker,
+ * so retargeting, {@link #reverse()} and ping-pong do not allocate. Animator that drives frames itself
+ * must be used from a thread with a Looper (main thread). Animator created with `driveFrames = false`
+ * is advanced only by {@link #onFrame(long)}. A color is delivered only if it differs from the previous one.
+ * Not thread-safe
+ *
+ * <pre>
+ * final CCFColorAnimator animator = new CCFColorAnimator(initialColor, listener);
+ * animator.setMode(CCFColorAnimator.MODE_SPRING);
+ * // on each tap
+ * animator.animateTo(color);
+ * </pre>
+ */
+public class CCFColorAnimator {
+
+    public static final int MODE_TWEEN = 0;
+    public static final int MODE_SPRING = 1;
+
+    private static final long DEFAULT_DURATION = 300L;
+
+    // `(1 + x) * e^-x` of critically damped spring for x = 8 is .3% of the initial distance
+    private static final float SPRING_SETTLE = 8.F;
+
+    // channel units (0-255) and channel units per second
+    private static final float SETTLE_DISTANCE = .25F;
+    private static final float SETTLE_VELOCITY = 2.F;
+
+    private final CCFAnimator.OnNewColorListener mListener;
+    private final boolean mDriveFrames;
+
+    private int mMode = MODE_TWEEN;
+    private long mDuration = DEFAULT_DURATION;
+    private TimeInterpolator mInterpolator;
+    private boolean mPingPong;
+
+    // current value of each channel (not rounded)
+    private float mA;
+    private float mR;
+    private float mG;
+    private float mB;
+
+    // velocity of each channel (units per second), MODE_SPRING only
+    private float mVelocityA;
+    private float mVelocityR;
+    private float mVelocityG;
+    private float mVelocityB;
+
+    // MODE_TWEEN start values
+    private float mFromA;
+    private float mFromR;
+    private float mFromG;
+    private float mFromB;
+
+    private int mTargetColor;
+    private int mPreviousTargetColor;
+
+    private boolean mRunning;
+    // mode of the current animation, `mMode` is latched by `animateTo`
+    private int mActiveMode = MODE_TWEEN;
+    private long mStartTime;
+    private long mLastFrameTime;
+    // duration of current tween, shorter than `mDuration` after a reverse mid-flight
+    private long mTweenDuration;
+
+    private int mDeliveredColor;
+
+    private FrameTicker mTicker;
+
+    /**
+     * @param color initial color, it's not delivered
+     * @param listener to receive colors
+     */
+    public CCFColorAnimator(@ColorInt int color, @NonNull CCFAnimator.OnNewColorListener listener) {
+        this(color, listener, true);
+    }
+
+    /**
+     * @param color initial color, it's not delivered
+     * @param listener to receive colors
+     * @param driveFrames whether animator should drive frames itself (with a frame callback). If false
+     *                    {@link #onFrame(long)} must be called by the owner
+     */
+    public CCFColorAnimator(
+            @ColorInt int color,
+            @NonNull CCFAnimator.OnNewColorListener listener,
+            boolean driveFrames
+    ) {
+        mListener = listener;
+        mDriveFrames = driveFrames;
+        setChannels(color);
+        mTargetColor = mPreviousTargetColor = mDeliveredColor = color;
+    }
+
+    /**
+     * @param mode {@link #MODE_TWEEN} (default) or {@link #MODE_SPRING}. Applied to the next `animateTo`
+     *             (or `reverse`) call, running animation keeps its mode
+     * @return self
+     */
+    public CCFColorAnimator setMode(int mode) {
+        if (mode != MODE_TWEEN && mode != MODE_SPRING) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        mMode = mode;
+        return this;
+    }
+
+    /**
+     * @param duration in milliseconds, duration of a tween or approximate settle time of a spring
+     * @return self
+     */
+    public CCFColorAnimator setDuration(@IntRange(from = 1) long duration) {
+        if (duration < 1L) {
+            throw new IllegalArgumentException("Duration must be positive, specified: " + duration);
+        }
+        mDuration = duration;
+        return this;
+    }
+
+    /**
+     * @param interpolator for {@link #MODE_TWEEN}, null for linear
+     * @return self
+     */
+    public CCFColorAnimator setInterpolator(@Nullable TimeInterpolator interpolator) {
+        mInterpolator = interpolator;
+        return this;
+    }
+
+    /**
+     * @param pingPong whether to animate back to the previous target each time a target is reached
+     * @return self
+     */
+    public CCFColorAnimator setPingPong(boolean pingPong) {
+        mPingPong = pingPong;
+        return this;
+    }
+
+    /**
+     * Animates from the current color to specified one. If animation is running it's retargeted
+     * (spring keeps its velocity)
+     *
+     * @param color target color
+     */
+    public void animateTo(@ColorInt int color) {
+        animateTo(color, mDuration, FrameTicker.now());
+    }
+
+    /**
+     * Animates back to the previous target. A tween reversed mid-flight takes as long as it has
+     * already been running, so it returns at the same pace
+     */
+    public void reverse() {
+
+        final long now = FrameTicker.now();
+
+        final long duration;
+        if (mRunning && mActiveMode == MODE_TWEEN) {
+            duration = Math.max(1L, Math.min(now - mStartTime, mTweenDuration));
+        } else {
+            duration = mDuration;
+        }
+
+        animateTo(mPreviousTargetColor, duration, now);
+    }
+
+    /**
+     * Stops animation and sets (and delivers) specified color immediately
+     */
+    public void snapTo(@ColorInt int color) {
+        mPreviousTargetColor = mTargetColor;
+        mTargetColor = color;
+        setChannels(color);
+        stop();
+        deliver(color);
+    }
+
+    /**
+     * Stops animation at the current color
+     */
+    public void cancel() {
+        stop();
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * @return current color (last evaluated)
+     */
+    @ColorInt
+    public int getColor() {
+        return color();
+    }
+
+    @ColorInt
+    public int getTargetColor() {
+        return mTargetColor;
+    }
+
+    /**
+     * Advances animation. Called automatically for an animator that drives frames
+     *
+     * @param frameTime current time in `SystemClock.uptimeMillis()` time base
+     */
+    public void onFrame(long frameTime) {
+
+        if (!mRunning) {
+            return;
+        }
+
+        final boolean ended = mActiveMode == MODE_SPRING
+                ? stepSpring(frameTime)
+                : stepTween(frameTime);
+
+        mLastFrameTime = frameTime;
+
+        if (ended) {
+            setChannels(mTargetColor);
+            deliver(mTargetColor);
+            if (mPingPong && mTargetColor != mPreviousTargetColor) {
+                // ticker keeps running
+                animateTo(mPreviousTargetColor, mDuration, frameTime);
+            } else {
+                stop();
+            }
+        } else {
+            deliver(color());
+        }
+    }
+
+    private void animateTo(@ColorInt int color, long duration, long now) {
+
+        if (color != mTargetColor) {
+            mPreviousTargetColor = mTargetColor;
+            mTargetColor = color;
+        }
+
+        if (!mRunning) {
+            mVelocityA = mVelocityR = mVelocityG = mVelocityB = .0F;
+        }
+
+        mFromA = mA;
+        mFromR = mR;
+        mFromG = mG;
+        mFromB = mB;
+
+        mActiveMode = mMode;
+        mStartTime = now;
+        mLastFrameTime = now;
+        mTweenDuration = duration;
+        mRunning = true;
+
+        if (mDriveFrames) {
+            startTicker();
+        }
+    }
+
+    private boolean stepTween(long frameTime) {
+
+        final long elapsed = frameTime - mStartTime;
+        if (elapsed >= mTweenDuration) {
+            return true;
+        }
+
+        final float fraction = elapsed <= 0L
+                ? .0F
+                : (float) elapsed / mTweenDuration;
+
+        final float interpolated = mInterpolator != null
+                ? mInterpolator.getInterpolation(fraction)
+                : fraction;
+
+        final int target = mTargetColor;
+        mA = mFromA + ((target >>> 24) - mFromA) * interpolated;
+        mR = mFromR + (((target >> 16) & 0xFF) - mFromR) * interpolated;
+        mG = mFromG + (((target >> 8) & 0xFF) - mFromG) * interpolated;
+        mB = mFromB + ((target & 0xFF) - mFromB) * interpolated;
+
+        return false;
+    }
+
+    private boolean stepSpring(long frameTime) {
+
+        final float dt = (frameTime - mLastFrameTime) / 1000.F;
+        if (dt <= .0F) {
+            return false;
+        }
+
+        // exact solution of critically damped spring for elapsed time, stable for any frame interval:
+        // x(t) = (x0 + (v0 + w * x0) * t) * e^(-w * t), v(t) = (v0 - w * (v0 + w * x0) * t) * e^(-w * t)
+        final float omega = SPRING_SETTLE * 1000.F / mDuration;
+        final float decay = (float) Math.exp(-omega * dt);
+
+        final int targetA = mTargetColor >>> 24;
+        final int targetR = (mTargetColor >> 16) & 0xFF;
+        final int targetG = (mTargetColor >> 8) & 0xFF;
+        final int targetB = mTargetColor & 0xFF;
+
+        float x = mA - targetA;
+        float c = mVelocityA + omega * x;
+        mA = targetA + (x + c * dt) * decay;
+        mVelocityA = (mVelocityA - omega * c * dt) * decay;
+
+        x = mR - targetR;
+        c = mVelocityR + omega * x;
+        mR = targetR + (x + c * dt) * decay;
+        mVelocityR = (mVelocityR - omega * c * dt) * decay;
+
+        x = mG - targetG;
+        c = mVelocityG + omega * x;
+        mG = targetG + (x + c * dt) * decay;
+        mVelocityG = (mVelocityG - omega * c * dt) * decay;
+
+        x = mB - targetB;
+        c = mVelocityB + omega * x;
+        mB = targetB + (x + c * dt) * decay;
+        mVelocityB = (mVelocityB - omega * c * dt) * decay;
+
+        return isSettled(mA - targetA, mVelocityA)
+                && isSettled(mR - targetR, mVelocityR)
+                && isSettled(mG - targetG, mVelocityG)
+                && isSettled(mB - targetB, mVelocityB);
+    }
+
+    private static boolean isSettled(float distance, float velocity) {
+        return Math.abs(distance) < SETTLE_DISTANCE && Math.abs(velocity) < SETTLE_VELOCITY;
+    }
+
+    private void setChannels(@ColorInt int color) {
+        mA = color >>> 24;
+        mR = (color >> 16) & 0xFF;
+        mG = (color >> 8) & 0xFF;
+        mB = color & 0xFF;
+        mVelocityA = mVelocityR = mVelocityG = mVelocityB = .0F;
+    }
+
+    @ColorInt
+    private int color() {
+        return (channel(mA) << 24) | (channel(mR) << 16) | (channel(mG) << 8) | channel(mB);
+    }
+
+    // overshooting interpolators (and a spring with initial velocity) could leave channel range
+    private static int channel(float value) {
+        final int channel = (int) (value + .5F);
+        return channel < 0 ? 0 : (channel > 0xFF ? 0xFF : channel);
+    }
+
+    private void deliver(@ColorInt int color) {
+        if (color != mDeliveredColor) {
+            mDeliveredColor = color;
+            mListener.onNewColor(color);
+        }
+    }
+
+    private void stop() {
+        mRunning = false;
+        mVelocityA = mVelocityR = mVelocityG = mVelocityB = .0F;
+        if (mTicker != null) {
+            mTicker.stop();
+        }
+    }
+
+    private void startTicker() {
+
+        if (mTicker == null) {
+            mTicker = new FrameTicker(new FrameTicker.Callback() {
+                @Override
+                public void onFrame(long frameTime) {
+                    CCFColorAnimator.this.onFrame(frameTime);
+                }
+            });
+        }
+
+        mTicker.start();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.FloatRange;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands colors evaluated on a background (or render) thread over to a consumer (UI) thread through
+ * a single atomic slot. A color is stored together with a sequence number in one `long`
+ * (`sequence << 32 | color`), so a consumer always reads a whole color (no tearing between channels)
+ * and knows whether it's new. There are no locks and no queue: a producer overwrites the slot,
+ * so if a consumer is slower, intermediate (stale) colors are dropped and only the latest one is delivered.
+ *
+ * Any number of threads could publish. {@link #consume(CCFAnimator.OnNewColorListener)} tracks
+ * the last consumed sequence, so it must be called from a single consumer thread
+ * (for example, from `onDraw` or a `Choreographer` frame callback).
+ *
+ * <pre>
+ * // background thread
+ * publisher.publish(animator, fraction);
+ *
+ * // UI thread, each frame
+ * publisher.consume(listener);
+ * </pre>
+ */
+public class CCFColorPublisher {
+
+    private static final long COLOR_MASK = 0xFFFFFFFFL;
+
+    // sequence in high 32 bits, color in low 32 bits. Sequence 0 - nothing is published yet
+    private final AtomicLong mSlot = new AtomicLong();
+
+    // accessed only by consumer thread
+    private int mConsumedSequence;
+
+    /**
+     * Evaluates a color on the calling thread and publishes it
+     *
+     * @see #publish(int)
+     */
+    public int publish(@NonNull CCFAnimator animator, @FloatRange(from = .0F, to = 1.F) float fraction) {
+        return publish(animator.getColor(fraction));
+    }
+
+    /**
+     * Publishes specified color, overwriting a previously published one even if it was not consumed
+     *
+     * @param color to publish
+     * @return sequence number of published color
+     */
+    public int publish(@ColorInt int color) {
+        while (true) {
+            final long current = mSlot.get();
+            int sequence = sequence(current) + 1;
+            if (sequence == 0) {
+                // 0 is reserved for `nothing published`, skipped on overflow
+                sequence = 1;
+            }
+            if (mSlot.compareAndSet(current, ((long) sequence << 32) | (color & COLOR_MASK))) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Delivers the latest published color if it was not consumed yet. Must be called from a single consumer thread
+     *
+     * @param listener to receive the color
+     * @return true if a new color was delivered
+     */
+    public boolean consume(@NonNull CCFAnimator.OnNewColorListener listener) {
+
+        final long value = mSlot.get();
+        final int sequence = sequence(value);
+
+        if (sequence == 0 || sequence == mConsumedSequence) {
+            return false;
+        }
+
+        mConsumedSequence = sequence;
+        listener.onNewColor(color(value));
+        return true;
+    }
+
+    /**
+     * @return whether the latest published color was not consumed yet. Must be called from the consumer thread
+     */
+    public boolean hasNew() {
+        final int sequence = sequence(mSlot.get());
+        return sequence != 0 && sequence != mConsumedSequence;
+    }
+
+    /**
+     * @return whether a color was published at least once
+     */
+    public boolean isPublished() {
+        return sequence(mSlot.get()) != 0;
+    }
+
+    /**
+     * Reads the latest published color without consuming it
+     *
+     * @param defaultColor to return if nothing was published yet
+     * @return color
+     */
+    @ColorInt
+    public int peek(@ColorInt int defaultColor) {
+        final long value = mSlot.get();
+        return sequence(value) == 0
+                ? defaultColor
+                : color(value);
+    }
+
+    /**
+     * @return sequence number of the latest published color, 0 if nothing was published yet
+     */
+    public int getSequence() {
+        return sequence(mSlot.get());
+    }
+
+    private static int sequence(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int color(long value) {
+        return (int) value;
+    }
+}
@@ -0,0 +1,308 @@
+package ru.noties.ccf;
+
+import android.animation.TimeInterpolator;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Runs numerous color animations from a single frame tick instead of a ValueAnimator (plus update listener)
+ * per animation. Targets are kept in flat arrays and all of them are evaluated in one pass per frame.
+ * Adding and removing targets does not allocate (until initial capacity is exceeded, then arrays are doubled).
+ *
+ * Engine that drives frames itself uses a single frame callback (Choreographer frame time since API 16),
+ * so it must be used from a thread with a Looper (main thread). Interpolated fractions outside of [0..1]
+ * (overshooting interpolators) are clamped. Engine created with `driveFrames = false` is advanced only by {@link #onFrame(long)}.
+ * If {@link CCFMetrics} are installed, a frame reports its evaluations and total listener dispatch time.
+ * Not thread-safe
+ */
+public class CCFEngine {
+
+    public static final int NO_ID = -1;
+
+    // id is a slot index combined with slot generation, so an id of a finished target cannot remove a new one
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final boolean mDriveFrames;
+
+    private CCFAnimator[] mAnimators;
+    private CCFAnimator.OnNewColorListener[] mListeners;
+    private TimeInterpolator[] mInterpolators;
+    private long[] mStartTimes;
+    private long[] mDurations;
+    private int[] mGenerations;
+
+    // stack of free slots below `mUsedSlots`
+    private int[] mFreeSlots;
+    private int mFreeCount;
+
+    // number of slots that were ever used, slots above are free
+    private int mUsedSlots;
+    private int mActiveCount;
+
+    private FrameTicker mTicker;
+
+    public CCFEngine() {
+        this(DEFAULT_CAPACITY, true);
+    }
+
+    /**
+     * @param capacity number of targets that could be added without allocation
+     * @param driveFrames whether engine should drive frames itself (with a frame callback). If false
+     *                    {@link #onFrame(long)} must be called by the owner
+     */
+    public CCFEngine(@IntRange(from = 1) int capacity, boolean driveFrames) {
+
+        if (capacity < 1 || capacity > SLOT_MASK + 1) {
+            throw new IllegalArgumentException("Capacity must be in range [1, " + (SLOT_MASK + 1)
+                    + "], specified: " + capacity);
+        }
+
+        mDriveFrames = driveFrames;
+
+        mAnimators = new CCFAnimator[capacity];
+        mListeners = new CCFAnimator.OnNewColorListener[capacity];
+        mInterpolators = new TimeInterpolator[capacity];
+        mStartTimes = new long[capacity];
+        mDurations = new long[capacity];
+        mGenerations = new int[capacity];
+        mFreeSlots = new int[capacity];
+    }
+
+    /**
+     * Adds a linear animation that starts now
+     *
+     * @see #add(CCFAnimator, CCFAnimator.OnNewColorListener, long, long, TimeInterpolator)
+     */
+    public int add(
+            @NonNull CCFAnimator animator,
+            @NonNull CCFAnimator.OnNewColorListener onNewColorListener,
+            @IntRange(from = 0) long duration
+    ) {
+        return add(animator, onNewColorListener, FrameTicker.now(), duration, null);
+    }
+
+    /**
+     * Adds an animation. When it ends the final color is delivered and the target is removed
+     *
+     * @param animator to evaluate colors
+     * @param onNewColorListener to deliver colors
+     * @param startTime start time in `SystemClock.uptimeMillis()` time base, could be in the future
+     * @param duration duration of animation in milliseconds
+     * @param interpolator to apply to animation fraction, null for linear
+     * @return id of added target, which could be used to remove it
+     */
+    public int add(
+            @NonNull CCFAnimator animator,
+            @NonNull CCFAnimator.OnNewColorListener onNewColorListener,
+            long startTime,
+            @IntRange(from = 0) long duration,
+            @Nullable TimeInterpolator interpolator
+    ) {
+
+        if (duration < 0L) {
+            throw new IllegalArgumentException("Duration must not be negative, specified: " + duration);
+        }
+
+        final int slot;
+        if (mFreeCount > 0) {
+            slot = mFreeSlots[--mFreeCount];
+        } else {
+            if (mUsedSlots == mAnimators.length) {
+                grow();
+            }
+            slot = mUsedSlots++;
+        }
+
+        mAnimators[slot] = animator;
+        mListeners[slot] = onNewColorListener;
+        mInterpolators[slot] = interpolator;
+        mStartTimes[slot] = startTime;
+        mDurations[slot] = duration;
+
+        mActiveCount += 1;
+
+        if (mDriveFrames) {
+            startTicker();
+        }
+
+        return (mGenerations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Removes a target without delivering any more colors. Does nothing if target has already ended
+     *
+     * @param id returned by `add`
+     * @return true if target was removed
+     */
+    public boolean remove(int id) {
+
+        final int slot = id & SLOT_MASK;
+
+        if (id < 0
+                || slot >= mUsedSlots
+                || mAnimators[slot] == null
+                || mGenerations[slot] != (id >>> SLOT_BITS)) {
+            return false;
+        }
+
+        free(slot);
+        return true;
+    }
+
+    /**
+     * Removes all targets
+     */
+    public void clear() {
+        for (int slot = 0; slot < mUsedSlots; slot++) {
+            if (mAnimators[slot] != null) {
+                free(slot);
+            }
+        }
+    }
+
+    /**
+     * @return number of running (or scheduled) targets
+     */
+    public int size() {
+        return mActiveCount;
+    }
+
+    /**
+     * Evaluates all targets for specified time. Called automatically for an engine that drives frames
+     *
+     * @param frameTime current time in `SystemClock.uptimeMillis()` time base
+     */
+    public void onFrame(long frameTime) {
+
+        final CCFMetrics metrics = CCFAnimator.getMetrics();
+
+        long dispatchNanos = 0L;
+
+        // `mUsedSlots` is read on each iteration, so targets added from a listener are evaluated too
+        for (int slot = 0; slot < mUsedSlots; slot++) {
+
+            final CCFAnimator animator = mAnimators[slot];
+            if (animator == null) {
+                continue;
+            }
+
+            final long elapsed = frameTime - mStartTimes[slot];
+            if (elapsed < 0L) {
+                continue;
+            }
+
+            final long duration = mDurations[slot];
+            final boolean ended = elapsed >= duration;
+            final float fraction = ended
+                    ? 1.F
+                    : (float) elapsed / duration;
+
+            final TimeInterpolator interpolator = mInterpolators[slot];
+            // overshoot would go past the end colors (and out of segments of a concat animator)
+            final float interpolated = interpolator != null
+                    ? CCFAnimator.clamp(interpolator.getInterpolation(fraction))
+                    : fraction;
+
+            final CCFAnimator.OnNewColorListener listener = mListeners[slot];
+
+            if (ended) {
+                free(slot);
+            }
+
+            if (metrics == null) {
+                listener.onNewColor(animator.getColor(interpolated));
+                continue;
+            }
+
+            // evaluation & listener dispatch of each target are timed only if metrics are installed
+            final long start = System.nanoTime();
+            final int color = animator.getColor(interpolated);
+            final long evaluated = System.nanoTime();
+
+            metrics.onEvaluated(animator, 1, evaluated - start);
+            if (!(listener instanceof DistinctColorListener)) {
+                metrics.onEmitted(color);
+            }
+
+            listener.onNewColor(color);
+
+            dispatchNanos += System.nanoTime() - evaluated;
+        }
+
+        if (metrics != null) {
+            final long budgetNanos = CCFAnimator.getFrameBudgetNanos();
+            if (dispatchNanos > budgetNanos) {
+                metrics.onSlowFrame(dispatchNanos, budgetNanos);
+            }
+        }
+
+        if (mActiveCount == 0 && mTicker != null) {
+            mTicker.stop();
+        }
+    }
+
+    private void free(int slot) {
+
+        mAnimators[slot] = null;
+        mListeners[slot] = null;
+        mInterpolators[slot] = null;
+        mGenerations[slot] = (mGenerations[slot] + 1) & GENERATION_MASK;
+
+        mFreeSlots[mFreeCount++] = slot;
+        mActiveCount -= 1;
+    }
+
+    private void grow() {
+
+        final int length = mAnimators.length;
+        if (length > SLOT_MASK) {
+            throw new IllegalStateException("Maximum number of targets reached: " + length);
+        }
+
+        final int capacity = Math.min(length * 2, SLOT_MASK + 1);
+
+        mAnimators = copyOf(mAnimators, new CCFAnimator[capacity]);
+        mListeners = copyOf(mListeners, new CCFAnimator.OnNewColorListener[capacity]);
+        mInterpolators = copyOf(mInterpolators, new TimeInterpolator[capacity]);
+
+        final long[] startTimes = new long[capacity];
+        System.arraycopy(mStartTimes, 0, startTimes, 0, length);
+        mStartTimes = startTimes;
+
+        final long[] durations = new long[capacity];
+        System.arraycopy(mDurations, 0, durations, 0, length);
+        mDurations = durations;
+
+        final int[] generations = new int[capacity];
+        System.arraycopy(mGenerations, 0, generations, 0, length);
+        mGenerations = generations;
+
+        final int[] freeSlots = new int[capacity];
+        System.arraycopy(mFreeSlots, 0, freeSlots, 0, mFreeCount);
+        mFreeSlots = freeSlots;
+    }
+
+    private static <T> T[] copyOf(T[] source, T[] destination) {
+        System.arraycopy(source, 0, destination, 0, source.length);
+        return destination;
+    }
+
+    private void startTicker() {
+
+        if (mTicker == null) {
+            mTicker = new FrameTicker(new FrameTicker.Callback() {
+                @Override
+                public void onFrame(long frameTime) {
+                    CCFEngine.this.onFrame(frameTime);
+                }
+            });
+        }
+
+        mTicker.start();
+    }
+}
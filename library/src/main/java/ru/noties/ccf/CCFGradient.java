@@ -0,0 +1,213 @@
+package ru.noties.ccf;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Renders a {@link CCFAnimator} as a gradient straight into pixel buffers (ready for `Bitmap.setPixels`
+ * or `Bitmap.copyPixelsFromBuffer`). Colors are evaluated once per gradient line with a bulk sweep
+ * (a concatenated animator hands each of its segments the whole run of pixels), then copied to other lines.
+ * Colors are exactly the same as of {@link CCFAnimator#getColors(int[], int, int, int)}
+ */
+public class CCFGradient {
+
+    /**
+     * Gradient goes from left (fraction `.0F`) to right (fraction `1.F`)
+     */
+    public static final int HORIZONTAL = 0;
+
+    /**
+     * Gradient goes from top (fraction `.0F`) to bottom (fraction `1.F`)
+     */
+    public static final int VERTICAL = 1;
+
+    /**
+     * Fills a row of `width` pixels
+     *
+     * @param animator to evaluate colors
+     * @param pixels destination
+     * @param offset index of the first pixel
+     * @param width number of pixels
+     */
+    public static void fillRow(
+            @NonNull CCFAnimator animator,
+            @NonNull int[] pixels,
+            int offset,
+            int width
+    ) {
+        animator.getColors(pixels, offset, width, 1);
+    }
+
+    /**
+     * Fills a column of `height` pixels
+     *
+     * @param animator to evaluate colors
+     * @param pixels destination
+     * @param offset index of the first pixel
+     * @param height number of pixels
+     * @param stride distance between two rows in `pixels`
+     */
+    public static void fillColumn(
+            @NonNull CCFAnimator animator,
+            @NonNull int[] pixels,
+            int offset,
+            int height,
+            @IntRange(from = 1) int stride
+    ) {
+        animator.getColors(pixels, offset, height, stride);
+    }
+
+    /**
+     * Fills a rectangle of `width * height` pixels
+     *
+     * @param animator to evaluate colors
+     * @param pixels destination
+     * @param offset index of the top-left pixel
+     * @param stride distance between two rows in `pixels` (at least `width`)
+     * @param width of the rectangle
+     * @param height of the rectangle
+     * @param orientation {@link #HORIZONTAL} or {@link #VERTICAL}
+     */
+    public static void fillRect(
+            @NonNull CCFAnimator animator,
+            @NonNull int[] pixels,
+            int offset,
+            int stride,
+            int width,
+            int height,
+            int orientation
+    ) {
+
+        checkRect(pixels.length, offset, stride, width, height);
+
+        if (width == 0 || height == 0) {
+            return;
+        }
+
+        if (orientation == HORIZONTAL) {
+            // evaluate the first row, copy it to the others
+            animator.getColors(pixels, offset, width, 1);
+            for (int y = 1, row = offset + stride; y < height; y++, row += stride) {
+                System.arraycopy(pixels, offset, pixels, row, width);
+            }
+        } else if (orientation == VERTICAL) {
+            // evaluate the first column, spread each of its pixels over the row
+            animator.getColors(pixels, offset, height, stride);
+            if (width > 1) {
+                for (int y = 0, row = offset; y < height; y++, row += stride) {
+                    Arrays.fill(pixels, row + 1, row + width, pixels[row]);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown orientation: " + orientation);
+        }
+    }
+
+    /**
+     * Fills `width * height` pixels (without gaps between rows) starting at current position of the buffer.
+     * Buffers backed by an array are filled in place, for others a row is allocated on each call
+     *
+     * @see #fill(CCFAnimator, IntBuffer, int, int, int, int[])
+     */
+    public static void fill(
+            @NonNull CCFAnimator animator,
+            @NonNull IntBuffer buffer,
+            int width,
+            int height,
+            int orientation
+    ) {
+        fill(animator, buffer, width, height, orientation, buffer.hasArray() ? null : new int[Math.max(0, width)]);
+    }
+
+    /**
+     * Fills `width * height` pixels (without gaps between rows) starting at current position of the buffer.
+     * Buffers backed by an array are filled in place, others receive rows through `scratch` (could be reused
+     * between calls, so filling does not allocate). Buffer position is advanced by `width * height`
+     *
+     * @param animator to evaluate colors
+     * @param buffer destination
+     * @param width of the image
+     * @param height of the image
+     * @param orientation {@link #HORIZONTAL} or {@link #VERTICAL}
+     * @param scratch array of at least `width` pixels, not used (could be null) if buffer is backed by an array
+     */
+    public static void fill(
+            @NonNull CCFAnimator animator,
+            @NonNull IntBuffer buffer,
+            int width,
+            int height,
+            int orientation,
+            @Nullable int[] scratch
+    ) {
+
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height must not be negative, width: " + width
+                    + ", height: " + height);
+        }
+
+        // `width * height` could overflow int
+        final long required = (long) width * height;
+        if (required > Integer.MAX_VALUE || required > buffer.remaining()) {
+            throw new IndexOutOfBoundsException("Buffer has " + buffer.remaining() + " remaining pixels, required: " + required);
+        }
+
+        final int length = (int) required;
+
+        if (length == 0) {
+            return;
+        }
+
+        if (orientation != HORIZONTAL && orientation != VERTICAL) {
+            throw new IllegalArgumentException("Unknown orientation: " + orientation);
+        }
+
+        if (buffer.hasArray()) {
+            fillRect(animator, buffer.array(), buffer.arrayOffset() + buffer.position(), width, width, height, orientation);
+            buffer.position(buffer.position() + length);
+            return;
+        }
+
+        if (scratch == null || scratch.length < width) {
+            throw new IllegalArgumentException("Scratch must have at least " + width + " pixels, specified: "
+                    + (scratch == null ? "null" : scratch.length));
+        }
+
+        if (orientation == HORIZONTAL) {
+            animator.getColors(scratch, 0, width, 1);
+            for (int y = 0; y < height; y++) {
+                buffer.put(scratch, 0, width);
+            }
+        } else {
+            // a color of each row is evaluated on its own, the same fraction as of `getColors` for the column
+            final float step = height > 1
+                    ? 1.F / (height - 1)
+                    : .0F;
+            for (int y = 0; y < height; y++) {
+                Arrays.fill(scratch, 0, width, animator.getColor(step * y));
+                buffer.put(scratch, 0, width);
+            }
+        }
+    }
+
+    private static void checkRect(int length, int offset, int stride, int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height must not be negative, width: " + width
+                    + ", height: " + height);
+        }
+        if (stride < width) {
+            throw new IllegalArgumentException("Stride must be at least width, stride: " + stride
+                    + ", width: " + width);
+        }
+        if (offset < 0
+                || (width > 0 && height > 0 && offset + (long) (height - 1) * stride + width > length)) {
+            throw new IndexOutOfBoundsException("Array length: " + length + ", offset: " + offset
+                    + ", stride: " + stride + ", width: " + width + ", height: " + height);
+        }
+    }
+
+    private CCFGradient() {}
+}
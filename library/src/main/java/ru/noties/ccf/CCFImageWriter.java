@@ -0,0 +1,314 @@
+package ru.noties.ccf;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams a gradient image rendered by a {@link CCFAnimator} (so colors are exactly the same as in the app)
+ * to an `OutputStream` or a `WritableByteChannel` row by row. Memory usage depends only on the width
+ * (one row of pixels and one of bytes), so images of any height are produced with constant memory.
+ * Does not use any Android classes at runtime, so could be used on a server (JVM). Library sources are still
+ * compiled against `android.jar` (or stubs) and support annotations, as other classes reference them.
+ *
+ * Gradient goes along `angle` (in degrees, clockwise, 0 is left to right as {@link CCFGradient#HORIZONTAL},
+ * 90 is top to bottom as {@link CCFGradient#VERTICAL}): the first pixel in that direction is fraction `.0F`,
+ * the last one is fraction `1.F`. Each row is evaluated with a single bulk sweep, rows of a horizontal
+ * gradient are evaluated once. Fractions are computed with the same float arithmetic as of {@link CCFGradient},
+ * so at 0 and 90 degrees pixels are exactly the same as of {@link CCFGradient#fillRect(CCFAnimator, int[], int, int, int, int, int)}.
+ *
+ * <pre>
+ * new CCFImageWriter(CCFAnimator.hsv(colors), 1920, 400)
+ *         .angle(30.F)
+ *         .format(CCFImageWriter.FORMAT_PNG)
+ *         .write(outputStream);
+ * </pre>
+ */
+public class CCFImageWriter {
+
+    /**
+     * Uncompressed pixels without any header, 4 bytes per pixel in ARGB order, rows top to bottom
+     */
+    public static final int FORMAT_RAW = 0;
+
+    /**
+     * PNG, 8-bit RGBA (non-premultiplied)
+     */
+    public static final int FORMAT_PNG = 1;
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final int PNG_COLOR_TYPE_RGBA = 6;
+
+    // PNG row filter: each byte minus the same byte of the previous pixel, a smooth gradient becomes mostly zeros
+    private static final int PNG_FILTER_SUB = 1;
+
+    private static final int IDAT_SIZE = 1 << 15;
+
+    private final CCFAnimator mAnimator;
+    private final int mWidth;
+    private final int mHeight;
+
+    private float mAngle;
+    private int mFormat = FORMAT_PNG;
+    private int mCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * @param animator to render
+     * @param width of the image in pixels
+     * @param height of the image in pixels
+     */
+    public CCFImageWriter(@NonNull CCFAnimator animator, @IntRange(from = 1) int width, @IntRange(from = 1) int height) {
+        if (width < 1 || height < 1 || width > (Integer.MAX_VALUE - 1) / 4) {
+            throw new IllegalArgumentException("Invalid image size, width: " + width + ", height: " + height);
+        }
+        mAnimator = animator;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * @param degrees direction of the gradient (clockwise, 0 is left to right), default is 0
+     * @return self
+     */
+    public CCFImageWriter angle(float degrees) {
+        mAngle = degrees;
+        return this;
+    }
+
+    /**
+     * @param format {@link #FORMAT_RAW} or {@link #FORMAT_PNG} (default)
+     * @return self
+     */
+    public CCFImageWriter format(int format) {
+        if (format != FORMAT_RAW && format != FORMAT_PNG) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        mFormat = format;
+        return this;
+    }
+
+    /**
+     * @param level deflate level for {@link #FORMAT_PNG} (0-9 or -1 for default)
+     * @return self
+     */
+    public CCFImageWriter compressionLevel(@IntRange(from = -1, to = 9) int level) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("Compression level must be in range [-1, 9], specified: " + level);
+        }
+        mCompressionLevel = level;
+        return this;
+    }
+
+    /**
+     * Writes image to specified channel. Channel is not closed
+     */
+    public void write(@NonNull WritableByteChannel channel) throws IOException {
+        write(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Writes image to specified stream. Stream is flushed, but not closed
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+        if (mFormat == FORMAT_PNG) {
+            writePng(outputStream);
+        } else {
+            writeRows(outputStream, false);
+        }
+        outputStream.flush();
+    }
+
+    private void writePng(@NonNull OutputStream outputStream) throws IOException {
+
+        outputStream.write(PNG_SIGNATURE);
+
+        final byte[] header = new byte[13];
+        putInt(header, 0, mWidth);
+        putInt(header, 4, mHeight);
+        header[8] = 8;
+        header[9] = PNG_COLOR_TYPE_RGBA;
+        // compression, filter & interlace methods are 0
+        writeChunk(outputStream, new CRC32(), 'I', 'H', 'D', 'R', header, header.length);
+
+        final Deflater deflater = new Deflater(mCompressionLevel);
+        try {
+            final IdatOutputStream idat = new IdatOutputStream(outputStream);
+            final DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(idat, deflater, IDAT_SIZE);
+            writeRows(deflaterOutputStream, true);
+            deflaterOutputStream.finish();
+            idat.flushChunk();
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(outputStream, new CRC32(), 'I', 'E', 'N', 'D', header, 0);
+    }
+
+    private void writeRows(@NonNull OutputStream outputStream, boolean png) throws IOException {
+
+        final int width = mWidth;
+        final int height = mHeight;
+
+        // fraction of pixel (x, y) is `(x * cos + y * sin - min) / (max - min)`, where min & max are
+        // projections of the corner pixels, so the first & the last pixel in gradient direction are 0 & 1
+        final double radians = Math.toRadians(mAngle % 360.D);
+        final double cos = exact(Math.cos(radians));
+        final double sin = exact(Math.sin(radians));
+
+        final double x = (width - 1) * cos;
+        final double y = (height - 1) * sin;
+        final double min = Math.min(0.D, x) + Math.min(0.D, y);
+        final double max = Math.max(0.D, x) + Math.max(0.D, y);
+        // float reciprocal of the projected length, so at 0 & 90 degrees the step is `1.F / (length - 1)`
+        // exactly as of CCFGradient, and fraction of a pixel is `step * index` as well
+        final float scale = max > min
+                ? 1.F / (float) (max - min)
+                : .0F;
+
+        final float origin = (float) (.0D - min) * scale;
+        final float step = (float) cos * scale;
+        final float rowStep = (float) sin * scale;
+
+        final int[] row = new int[width];
+        final byte[] bytes = new byte[(png ? 1 : 0) + width * 4];
+
+        if (png) {
+            bytes[0] = PNG_FILTER_SUB;
+        }
+
+        // rows of a horizontal gradient are all the same
+        final boolean sameRows = sin == .0D;
+
+        for (int r = 0; r < height; r++) {
+
+            if (!sameRows || r == 0) {
+
+                final float start = origin + rowStep * r;
+
+                if (step == .0F) {
+                    Arrays.fill(row, mAnimator.getColor(start));
+                } else {
+                    mAnimator.sweepColors(start, step, 0, row, 0, 1, width);
+                }
+
+                if (png) {
+                    toPngRow(row, bytes);
+                } else {
+                    toRawRow(row, bytes);
+                }
+            }
+
+            outputStream.write(bytes);
+        }
+    }
+
+    // cos & sin of multiples of 90 degrees are not exact zeros
+    private static double exact(double value) {
+        return Math.abs(value) < 1E-9D ? .0D : value;
+    }
+
+    private static void toRawRow(@NonNull int[] row, @NonNull byte[] bytes) {
+        for (int i = 0, b = 0, length = row.length; i < length; i++, b += 4) {
+            final int color = row[i];
+            bytes[b] = (byte) (color >>> 24);
+            bytes[b + 1] = (byte) (color >> 16);
+            bytes[b + 2] = (byte) (color >> 8);
+            bytes[b + 3] = (byte) color;
+        }
+    }
+
+    private static void toPngRow(@NonNull int[] row, @NonNull byte[] bytes) {
+        // RGBA with Sub filter (the first pixel is stored as is)
+        int previous = 0;
+        for (int i = 0, b = 1, length = row.length; i < length; i++, b += 4) {
+            final int color = row[i];
+            bytes[b] = (byte) ((color >> 16) - (previous >> 16));
+            bytes[b + 1] = (byte) ((color >> 8) - (previous >> 8));
+            bytes[b + 2] = (byte) (color - previous);
+            bytes[b + 3] = (byte) ((color >>> 24) - (previous >>> 24));
+            previous = color;
+        }
+    }
+
+    private static void writeChunk(
+            @NonNull OutputStream outputStream,
+            @NonNull CRC32 crc,
+            char t0, char t1, char t2, char t3,
+            @NonNull byte[] data,
+            int length
+    ) throws IOException {
+
+        final byte[] bytes = new byte[8];
+        putInt(bytes, 0, length);
+        bytes[4] = (byte) t0;
+        bytes[5] = (byte) t1;
+        bytes[6] = (byte) t2;
+        bytes[7] = (byte) t3;
+        outputStream.write(bytes, 0, 8);
+        outputStream.write(data, 0, length);
+
+        crc.reset();
+        crc.update(bytes, 4, 4);
+        crc.update(data, 0, length);
+        putInt(bytes, 0, (int) crc.getValue());
+        outputStream.write(bytes, 0, 4);
+    }
+
+    private static void putInt(@NonNull byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >> 16);
+        bytes[offset + 2] = (byte) (value >> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    // splits compressed data into IDAT chunks of a fixed size
+    private static class IdatOutputStream extends OutputStream {
+
+        private final OutputStream mOutputStream;
+        private final CRC32 mCrc = new CRC32();
+        private final byte[] mBuffer = new byte[IDAT_SIZE];
+        private int mLength;
+
+        IdatOutputStream(@NonNull OutputStream outputStream) {
+            mOutputStream = outputStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (mLength == IDAT_SIZE) {
+                flushChunk();
+            }
+            mBuffer[mLength++] = (byte) b;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (mLength == IDAT_SIZE) {
+                    flushChunk();
+                }
+                final int count = Math.min(len, IDAT_SIZE - mLength);
+                System.arraycopy(b, off, mBuffer, mLength, count);
+                mLength += count;
+                off += count;
+                len -= count;
+            }
+        }
+
+        void flushChunk() throws IOException {
+            if (mLength > 0) {
+                writeChunk(mOutputStream, mCrc, 'I', 'D', 'A', 'T', mBuffer, mLength);
+                mLength = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives instrumentation events of color animations. Installed globally with
+ * {@link CCFAnimator#setMetrics(CCFMetrics)}. When no metrics are installed nothing is measured:
+ * ValueAnimators and {@link DistinctColorListener}s pick up installed metrics when they are created,
+ * {@link CCFEngine} and {@link CCFAnimator#instrument(CCFAnimator)} check for them once per frame (or call).
+ *
+ * Could be called from different threads (for example, by an instrumented animator used by {@link CCFParallel}),
+ * so an implementation must be thread-safe and cheap
+ *
+ * @see Counter
+ */
+public interface CCFMetrics {
+
+    /**
+     * Timing sample of an evaluation. `animator.getClass()` identifies the mode
+     * (rgb, hsv, concat, baked, etc)
+     *
+     * @param animator that was evaluated
+     * @param count number of evaluated colors (more than 1 for a bulk evaluation)
+     * @param nanos time spent
+     */
+    void onEvaluated(@NonNull CCFAnimator animator, int count, long nanos);
+
+    /**
+     * A color was delivered to a listener
+     */
+    void onEmitted(@ColorInt int color);
+
+    /**
+     * A color was not delivered, as it's (nearly) the same as the previous one
+     *
+     * @see DistinctColorListener
+     */
+    void onSuppressed(@ColorInt int color);
+
+    /**
+     * Listener dispatch of a single frame took longer than the budget
+     *
+     * @param dispatchNanos time spent in listeners
+     * @param budgetNanos budget specified in {@link CCFAnimator#setMetrics(CCFMetrics, long)}
+     */
+    void onSlowFrame(long dispatchNanos, long budgetNanos);
+
+    /**
+     * Thread-safe {@link CCFMetrics} that sums all events
+     */
+    class Counter implements CCFMetrics {
+
+        private final AtomicLong mEvaluations = new AtomicLong();
+        private final AtomicLong mEvaluationNanos = new AtomicLong();
+        private final AtomicLong mEmitted = new AtomicLong();
+        private final AtomicLong mSuppressed = new AtomicLong();
+        private final AtomicLong mSlowFrames = new AtomicLong();
+
+        @Override
+        public void onEvaluated(@NonNull CCFAnimator animator, int count, long nanos) {
+            mEvaluations.addAndGet(count);
+            mEvaluationNanos.addAndGet(nanos);
+        }
+
+        @Override
+        public void onEmitted(@ColorInt int color) {
+            mEmitted.incrementAndGet();
+        }
+
+        @Override
+        public void onSuppressed(@ColorInt int color) {
+            mSuppressed.incrementAndGet();
+        }
+
+        @Override
+        public void onSlowFrame(long dispatchNanos, long budgetNanos) {
+            mSlowFrames.incrementAndGet();
+        }
+
+        public long getEvaluationCount() {
+            return mEvaluations.get();
+        }
+
+        public long getEvaluationNanos() {
+            return mEvaluationNanos.get();
+        }
+
+        public long getEmittedCount() {
+            return mEmitted.get();
+        }
+
+        public long getSuppressedCount() {
+            return mSuppressed.get();
+        }
+
+        public long getSlowFrameCount() {
+            return mSlowFrames.get();
+        }
+
+        public void reset() {
+            mEvaluations.set(0L);
+            mEvaluationNanos.set(0L);
+            mEmitted.set(0L);
+            mSuppressed.set(0L);
+            mSlowFrames.set(0L);
+        }
+
+        @Override
+        public String toString() {
+            return "Counter{" +
+                    "evaluations=" + mEvaluations +
+                    ", evaluationNanos=" + mEvaluationNanos +
+                    ", emitted=" + mEmitted +
+                    ", suppressed=" + mSuppressed +
+                    ", slowFrames=" + mSlowFrames +
+                    '}';
+        }
+    }
+}
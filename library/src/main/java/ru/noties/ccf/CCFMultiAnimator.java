@@ -0,0 +1,262 @@
+package ru.noties.ccf;
+
+import android.animation.ValueAnimator;
+import android.support.annotation.ColorInt;
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Size;
+
+/**
+ * Animates several colors (a palette: background, toolbar, status bar, accent, text, etc) together.
+ * Each state is an array of `K` colors, all states must have the same length. For a fraction segment
+ * and local fraction are calculated once and then all `K` colors are evaluated in one pass into an `int[K]`,
+ * so a theme transition needs a single ValueAnimator (one interpolator call and one listener callback per frame)
+ * instead of one per color. Colors of each target are the same as of {@link CCFAnimator#rgb(int[])},
+ * {@link CCFAnimator#argb(int[])} or {@link CCFAnimator#hsv(int[])} of that target's colors (alpha included:
+ * as with `argb` two states with equal alpha of a target give an opaque color).
+ *
+ * <pre>
+ * final CCFMultiAnimator multi = CCFMultiAnimator.hsv(
+ *         new int[] { lightBackground, lightToolbar, lightAccent },
+ *         new int[] { darkBackground, darkToolbar, darkAccent }
+ * );
+ * multi.asValueAnimator(new CCFMultiAnimator.OnNewColorsListener() {
+ *     public void onNewColors(int[] colors) {
+ *         // colors[0] - background, colors[1] - toolbar, colors[2] - accent
+ *     }
+ * }).start();
+ * </pre>
+ *
+ * Immutable, so one instance could be evaluated from multiple threads
+ */
+public class CCFMultiAnimator {
+
+    private static final int MODE_RGB = 0;
+    private static final int MODE_ARGB = 1;
+    private static final int MODE_HSV = 2;
+
+    public interface OnNewColorsListener {
+
+        /**
+         * @param colors evaluated colors, this array is reused for each frame and must not be stored
+         */
+        void onNewColors(@NonNull int[] colors);
+    }
+
+    /**
+     * @see CCFAnimator#rgb(int[])
+     *
+     * @param states at least 2 states, each is an array of colors of the same length
+     * @return {@link CCFMultiAnimator}
+     */
+    public static CCFMultiAnimator rgb(@NonNull @Size(min = 2) int[]... states) {
+        return new CCFMultiAnimator(MODE_RGB, states);
+    }
+
+    /**
+     * @see CCFAnimator#argb(int[])
+     *
+     * @param states at least 2 states, each is an array of colors of the same length
+     * @return {@link CCFMultiAnimator}
+     */
+    public static CCFMultiAnimator argb(@NonNull @Size(min = 2) int[]... states) {
+        return new CCFMultiAnimator(MODE_ARGB, states);
+    }
+
+    /**
+     * @see CCFAnimator#hsv(int[])
+     *
+     * @param states at least 2 states, each is an array of colors of the same length
+     * @return {@link CCFMultiAnimator}
+     */
+    public static CCFMultiAnimator hsv(@NonNull @Size(min = 2) int[]... states) {
+        return new CCFMultiAnimator(MODE_HSV, states);
+    }
+
+    private final int mMode;
+
+    // number of targets & number of segments (states - 1)
+    private final int mSize;
+    private final int mSegments;
+
+    // colors of all states, state-major (`state * mSize + target`)
+    private final int[] mColors;
+
+    // for MODE_HSV, segment-major (`segment * mSize + target`). Hue difference is signed and wraps around 360
+    private final float[] mFromH;
+    private final float[] mDiffH;
+    private final float[] mFromS;
+    private final float[] mDiffS;
+    private final float[] mFromV;
+    private final float[] mDiffV;
+
+    private CCFMultiAnimator(int mode, @NonNull int[][] states) {
+
+        if (states.length < 2) {
+            throw new IllegalArgumentException("At least 2 states are required, specified: " + states.length);
+        }
+
+        final int size = states[0].length;
+        for (int[] state : states) {
+            if (state.length != size) {
+                throw new IllegalArgumentException("All states must have the same number of colors, " +
+                        "expected: " + size + ", specified: " + state.length);
+            }
+        }
+
+        mMode = mode;
+        mSize = size;
+        mSegments = states.length - 1;
+
+        mColors = new int[states.length * size];
+        for (int i = 0; i < states.length; i++) {
+            System.arraycopy(states[i], 0, mColors, i * size, size);
+        }
+
+        if (mode == MODE_HSV) {
+
+            final int length = mSegments * size;
+            mFromH = new float[length];
+            mDiffH = new float[length];
+            mFromS = new float[length];
+            mDiffS = new float[length];
+            mFromV = new float[length];
+            mDiffV = new float[length];
+
+            final float[] from = new float[3];
+            final float[] to = new float[3];
+
+            for (int i = 0; i < length; i++) {
+
+                CCFAnimator.colorToHSV(mColors[i], from);
+                CCFAnimator.colorToHSV(mColors[i + size], to);
+
+                // the same as HSVAnimator and HSVBackwardsAnimator
+                mFromH[i] = from[0];
+                mDiffH[i] = CCFAnimator.hueDiff(from[0], to[0]);
+                mFromS[i] = from[1];
+                mDiffS[i] = to[1] - from[1];
+                mFromV[i] = from[2];
+                mDiffV[i] = to[2] - from[2];
+            }
+
+        } else {
+            mFromH = mDiffH = mFromS = mDiffS = mFromV = mDiffV = null;
+        }
+    }
+
+    /**
+     * @return number of colors in each state
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return number of states
+     */
+    public int states() {
+        return mSegments + 1;
+    }
+
+    @ColorInt
+    public int getStateColor(int state, int target) {
+        if (state < 0 || state > mSegments || target < 0 || target >= mSize) {
+            throw new IndexOutOfBoundsException("State: " + state + ", target: " + target);
+        }
+        return mColors[state * mSize + target];
+    }
+
+    /**
+     * @see #getColors(float, int[], int)
+     */
+    public void getColors(@FloatRange(from = .0F, to = 1.F) float fraction, @NonNull int[] out) {
+        getColors(fraction, out, 0);
+    }
+
+    /**
+     * Evaluates all colors for specified fraction. Does not allocate
+     *
+     * @param fraction shared fraction, states are spaced evenly. Values outside of [0..1] are clamped
+     * @param out array to store {@link #size()} colors
+     * @param offset index in `out` for the first color
+     */
+    public void getColors(
+            @FloatRange(from = .0F, to = 1.F) float fraction,
+            @NonNull int[] out,
+            @IntRange(from = 0) int offset
+    ) {
+
+        if (offset < 0 || offset + mSize > out.length) {
+            throw new IndexOutOfBoundsException("Array length: " + out.length + ", offset: " + offset
+                    + ", size: " + mSize);
+        }
+
+        // segment & local fraction are shared by all targets, the same split as of ConcatAnimator
+        final int segment;
+        final float local;
+        if (!(fraction > .0F)) {
+            segment = 0;
+            local = .0F;
+        } else if (fraction >= 1.F) {
+            segment = mSegments - 1;
+            local = 1.F;
+        } else {
+            segment = (int) (fraction * mSegments);
+            local = fraction * mSegments - segment;
+        }
+
+        if (mMode == MODE_HSV) {
+            hsv(segment * mSize, local, out, offset);
+        } else {
+            rgb(segment * mSize, local, out, offset);
+        }
+    }
+
+    /**
+     * Creates a ValueAnimator that delivers all colors with a single callback per frame
+     *
+     * @param onNewColorsListener listener to receive colors
+     * @return ValueAnimator
+     */
+    public ValueAnimator asValueAnimator(@NonNull final OnNewColorsListener onNewColorsListener) {
+        final int[] colors = new int[mSize];
+        final ValueAnimator animator = ValueAnimator.ofFloat(.0F, 1.F);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                getColors(animation.getAnimatedFraction(), colors, 0);
+                onNewColorsListener.onNewColors(colors);
+            }
+        });
+        return animator;
+    }
+
+    private void rgb(int start, float fraction, @NonNull int[] out, int offset) {
+
+        final int[] colors = mColors;
+        final int size = mSize;
+        final boolean argb = mMode == MODE_ARGB;
+
+        for (int i = start, end = start + size, o = offset; i < end; i++, o++) {
+
+            out[o] = argb
+                    ? CCFAnimator.lerpArgb(colors[i], colors[i + size], fraction)
+                    : CCFAnimator.lerpRgb(colors[i], colors[i + size], fraction);
+        }
+    }
+
+    private void hsv(int start, float fraction, @NonNull int[] out, int offset) {
+
+        for (int i = start, end = start + mSize, o = offset; i < end; i++, o++) {
+
+            out[o] = CCFAnimator.hsvToColor(
+                    0xFF,
+                    CCFAnimator.wrapHue(mFromH[i] + (mDiffH[i] * fraction)),
+                    mFromS[i] + (mDiffS[i] * fraction),
+                    mFromV[i] + (mDiffV[i] * fraction)
+            );
+        }
+    }
+}
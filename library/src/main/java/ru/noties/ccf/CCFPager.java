@@ -0,0 +1,253 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates a color for a pager (or any position-indexed scroll) directly from `position` and
+ * `positionOffset` as reported by `ViewPager.OnPageChangeListener#onPageScrolled`, without a concat
+ * of per-page animators and without converting position into a global fraction.
+ *
+ * Page colors are kept in a compact array (plus HSV components for {@link #MODE_HSV}), so a color
+ * is evaluated in constant time from two adjacent pages and does not allocate. Results are the same
+ * as of the corresponding two-color {@link CCFAnimator} between those pages (alpha included: as with
+ * {@link CCFAnimator#argb(int, int)} pages with equal alpha give an opaque color). Pages could be added,
+ * replaced and removed in place. Not thread-safe
+ *
+ * <pre>
+ * final CCFPager pager = new CCFPager(CCFPager.MODE_HSV, colors);
+ * viewPager.addOnPageChangeListener(new ViewPager.SimpleOnPageChangeListener() {
+ *     public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+ *         view.setBackgroundColor(pager.getColor(position, positionOffset));
+ *     }
+ * });
+ * </pre>
+ */
+public class CCFPager {
+
+    /**
+     * @see CCFAnimator#rgb(int, int)
+     */
+    public static final int MODE_RGB = 0;
+
+    /**
+     * @see CCFAnimator#argb(int, int)
+     */
+    public static final int MODE_ARGB = 1;
+
+    /**
+     * @see CCFAnimator#hsv(int, int)
+     */
+    public static final int MODE_HSV = 2;
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final int mMode;
+
+    private int[] mColors;
+
+    // HSV components of each page, only for MODE_HSV
+    private float[] mHues;
+    private float[] mSaturations;
+    private float[] mValues;
+
+    // scratch for color conversion
+    private float[] mHsv;
+
+    private int mSize;
+
+    /**
+     * @param mode one of {@link #MODE_RGB}, {@link #MODE_ARGB}, {@link #MODE_HSV}
+     * @param colors initial page colors (could be empty)
+     */
+    public CCFPager(@IntRange(from = MODE_RGB, to = MODE_HSV) int mode, @NonNull int... colors) {
+
+        if (mode < MODE_RGB || mode > MODE_HSV) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        mMode = mode;
+
+        final int capacity = Math.max(DEFAULT_CAPACITY, colors.length);
+        mColors = new int[capacity];
+        if (mode == MODE_HSV) {
+            mHues = new float[capacity];
+            mSaturations = new float[capacity];
+            mValues = new float[capacity];
+            mHsv = new float[3];
+        }
+
+        for (int color : colors) {
+            add(color);
+        }
+    }
+
+    /**
+     * @param position index of the first visible page
+     * @param positionOffset [0..1) offset of the second visible page
+     * @return color between `position` and `position + 1` pages. Positions before the first page
+     * and after the last one are clamped
+     * @throws IllegalStateException if there are no pages
+     */
+    @ColorInt
+    public int getColor(int position, @FloatRange(from = .0F, to = 1.F) float positionOffset) {
+
+        final int last = mSize - 1;
+        if (last < 0) {
+            throw new IllegalStateException("There are no pages");
+        }
+
+        // bounds are evaluated by the animator between two pages as well (not returned as is),
+        // as `argb` and `hsv` animators could give a different color even at their bounds
+        final int from;
+        final int to;
+        final float fraction;
+        if (position < 0) {
+            from = 0;
+            to = Math.min(1, last);
+            fraction = .0F;
+        } else if (position >= last) {
+            from = Math.max(0, last - 1);
+            to = last;
+            fraction = 1.F;
+        } else {
+            from = position;
+            to = position + 1;
+            fraction = !(positionOffset > .0F) ? .0F : (positionOffset > 1.F ? 1.F : positionOffset);
+        }
+
+        if (mMode == MODE_HSV) {
+            return hsv(from, to, fraction);
+        }
+
+        return mMode == MODE_ARGB
+                ? CCFAnimator.lerpArgb(mColors[from], mColors[to], fraction)
+                : CCFAnimator.lerpRgb(mColors[from], mColors[to], fraction);
+    }
+
+    /**
+     * @return number of pages
+     */
+    public int size() {
+        return mSize;
+    }
+
+    @ColorInt
+    public int getPageColor(int index) {
+        checkIndex(index, mSize);
+        return mColors[index];
+    }
+
+    /**
+     * Adds a page to the end
+     */
+    public void add(@ColorInt int color) {
+        add(mSize, color);
+    }
+
+    /**
+     * Inserts a page at specified index, pages starting at `index` are shifted
+     *
+     * @param index [0..{@link #size()}]
+     * @param color of the page
+     */
+    public void add(int index, @ColorInt int color) {
+
+        checkIndex(index, mSize + 1);
+
+        if (mSize == mColors.length) {
+            grow();
+        }
+
+        final int moved = mSize - index;
+        if (moved > 0) {
+            System.arraycopy(mColors, index, mColors, index + 1, moved);
+            if (mHues != null) {
+                System.arraycopy(mHues, index, mHues, index + 1, moved);
+                System.arraycopy(mSaturations, index, mSaturations, index + 1, moved);
+                System.arraycopy(mValues, index, mValues, index + 1, moved);
+            }
+        }
+
+        mSize += 1;
+        store(index, color);
+    }
+
+    /**
+     * Replaces color of a page
+     */
+    public void set(int index, @ColorInt int color) {
+        checkIndex(index, mSize);
+        store(index, color);
+    }
+
+    /**
+     * Removes a page, pages after `index` are shifted
+     */
+    public void remove(int index) {
+
+        checkIndex(index, mSize);
+
+        final int moved = mSize - index - 1;
+        if (moved > 0) {
+            System.arraycopy(mColors, index + 1, mColors, index, moved);
+            if (mHues != null) {
+                System.arraycopy(mHues, index + 1, mHues, index, moved);
+                System.arraycopy(mSaturations, index + 1, mSaturations, index, moved);
+                System.arraycopy(mValues, index + 1, mValues, index, moved);
+            }
+        }
+
+        mSize -= 1;
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+
+    public int getMode() {
+        return mMode;
+    }
+
+    private int hsv(int from, int to, float fraction) {
+
+        final float fromS = mSaturations[from];
+        final float fromV = mValues[from];
+        final float s = fromS + ((mSaturations[to] - fromS) * fraction);
+        final float v = fromV + ((mValues[to] - fromV) * fraction);
+
+        // the same as HSVAnimator and HSVBackwardsAnimator
+        return CCFAnimator.hsvToColor(0xFF, CCFAnimator.hsvHue(mHues[from], mHues[to], fraction), s, v);
+    }
+
+    private void store(int index, @ColorInt int color) {
+        mColors[index] = color;
+        if (mHues != null) {
+            final float[] hsv = mHsv;
+            CCFAnimator.colorToHSV(color, hsv);
+            mHues[index] = hsv[0];
+            mSaturations[index] = hsv[1];
+            mValues[index] = hsv[2];
+        }
+    }
+
+    private void grow() {
+        final int capacity = mColors.length * 2;
+        mColors = Arrays.copyOf(mColors, capacity);
+        if (mHues != null) {
+            mHues = Arrays.copyOf(mHues, capacity);
+            mSaturations = Arrays.copyOf(mSaturations, capacity);
+            mValues = Arrays.copyOf(mValues, capacity);
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package ru.noties.ccf;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Read-only collection of named {@link CCFAnimator} definitions stored in a compact binary format
+ * (written with {@link CCFPaletteWriter}). File is memory-mapped and only its header is read when opened,
+ * an animator is decoded on the first lookup by its name (binary search over sorted names) and cached,
+ * so startup time does not depend on the number of palettes.
+ *
+ * Format (big-endian):
+ * <pre>
+ * header:  int magic ('CCFP'), int version, int count
+ * index:   count * (int nameOffset, int nameLength, int dataOffset), sorted by UTF-8 bytes of name
+ * names:   UTF-8 bytes
+ * data:    node = byte type, then
+ *              RGB, ARGB, HSV, LINEAR_RGB, LINEAR_ARGB: int count, int[count] colors, byte hasPositions, [float[count] positions]
+ *              HSV_ALPHA: int fromColor, int toColor, int fromAlpha, int toAlpha
+ *              CONCAT: int count, byte hasPositions, [float[count + 1] positions], node[count]
+ * </pre>
+ * Lookups are thread-safe
+ */
+public class CCFPalette {
+
+    static final int MAGIC = 0x43434650;
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 12;
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    static final byte TYPE_RGB          = 1;
+    static final byte TYPE_ARGB         = 2;
+    static final byte TYPE_HSV          = 3;
+    static final byte TYPE_HSV_ALPHA    = 4;
+    static final byte TYPE_LINEAR_RGB   = 5;
+    static final byte TYPE_LINEAR_ARGB  = 6;
+    static final byte TYPE_CONCAT       = 7;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Maps specified file into memory
+     *
+     * @param file written with {@link CCFPaletteWriter}
+     * @return {@link CCFPalette}
+     * @throws IOException if file cannot be read or is not a palette file
+     */
+    public static CCFPalette open(@NonNull File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            // mapping stays valid after channel is closed
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @param buffer with palette data starting at index 0 (for example mapped from an asset file descriptor)
+     * @return {@link CCFPalette}
+     * @throws IOException if buffer does not contain a palette
+     */
+    public static CCFPalette wrap(@NonNull ByteBuffer buffer) throws IOException {
+
+        final ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a CCFPalette data");
+        }
+
+        final int version = data.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported CCFPalette version: " + version);
+        }
+
+        final int count = data.getInt(8);
+        if (count < 0 || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > data.limit()) {
+            throw new IOException("Malformed CCFPalette index, count: " + count);
+        }
+
+        return new CCFPalette(data, count);
+    }
+
+    private final ByteBuffer mData;
+    private final int mCount;
+
+    // decoded animators by index, guarded by `this`
+    private final CCFAnimator[] mAnimators;
+
+    private CCFPalette(@NonNull ByteBuffer data, int count) {
+        mData = data;
+        mCount = count;
+        mAnimators = new CCFAnimator[count];
+    }
+
+    /**
+     * @return number of palettes
+     */
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * @param index of a palette (palettes are sorted by name)
+     * @return name of palette
+     */
+    @NonNull
+    public String name(int index) {
+        checkIndex(index);
+        final int entry = HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+        final byte[] bytes = new byte[mData.getInt(entry + 4)];
+        final ByteBuffer name = mData.duplicate();
+        name.position(mData.getInt(entry));
+        name.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @param name of palette
+     * @return {@link CCFAnimator} or null if there is no palette with specified name
+     */
+    @Nullable
+    public CCFAnimator get(@NonNull String name) {
+        final int index = indexOf(name);
+        return index < 0
+                ? null
+                : get(index);
+    }
+
+    /**
+     * @param index of a palette (palettes are sorted by name)
+     * @return {@link CCFAnimator}
+     */
+    @NonNull
+    public synchronized CCFAnimator get(int index) {
+        checkIndex(index);
+        CCFAnimator animator = mAnimators[index];
+        if (animator == null) {
+            final int offset = mData.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE + 8);
+            animator = new Decoder(mData, offset).node();
+            mAnimators[index] = animator;
+        }
+        return animator;
+    }
+
+    /**
+     * @param name of palette
+     * @return index of palette or -1 if there is no palette with specified name
+     */
+    public int indexOf(@NonNull String name) {
+
+        final byte[] bytes = name.getBytes(UTF_8);
+
+        int low = 0;
+        int high = mCount - 1;
+
+        while (low <= high) {
+
+            final int mid = (low + high) >>> 1;
+            final int entry = HEADER_SIZE + mid * INDEX_ENTRY_SIZE;
+            final int compare = compare(mData, mData.getInt(entry), mData.getInt(entry + 4), bytes);
+
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mCount);
+        }
+    }
+
+    // unsigned lexicographic comparison, the same order as in CCFPaletteWriter
+    private static int compare(@NonNull ByteBuffer data, int offset, int length, @NonNull byte[] bytes) {
+        for (int i = 0, min = Math.min(length, bytes.length); i < min; i++) {
+            final int diff = (data.get(offset + i) & 0xFF) - (bytes[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - bytes.length;
+    }
+
+    // reads with absolute gets only, so buffer state is never modified
+    private static class Decoder {
+
+        private final ByteBuffer mData;
+        private int mPosition;
+
+        Decoder(@NonNull ByteBuffer data, int position) {
+            mData = data;
+            mPosition = position;
+        }
+
+        CCFAnimator node() {
+
+            final byte type = nextByte();
+
+            switch (type) {
+
+                case TYPE_HSV_ALPHA:
+                    return CCFAnimator.hsv(nextInt(), nextInt(), nextInt(), nextInt());
+
+                case TYPE_CONCAT: {
+                    final int count = nextInt();
+                    final float[] positions = nextByte() != 0
+                            ? nextFloats(count + 1)
+                            : null;
+                    final CCFAnimator[] animators = new CCFAnimator[count];
+                    for (int i = 0; i < count; i++) {
+                        animators[i] = node();
+                    }
+                    return positions != null
+                            ? CCFAnimator.concat(positions, animators)
+                            : CCFAnimator.concat(animators);
+                }
+
+                case TYPE_RGB:
+                case TYPE_ARGB:
+                case TYPE_HSV:
+                case TYPE_LINEAR_RGB:
+                case TYPE_LINEAR_ARGB: {
+                    final int count = nextInt();
+                    final int[] colors = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        colors[i] = nextInt();
+                    }
+                    final float[] positions = nextByte() != 0
+                            ? nextFloats(count)
+                            : null;
+                    return stops(type, colors, positions);
+                }
+
+                default:
+                    throw new IllegalStateException("Unknown CCFPalette node type: " + type
+                            + " at: " + (mPosition - 1));
+            }
+        }
+
+        private static CCFAnimator stops(byte type, @NonNull int[] colors, @Nullable float[] positions) {
+
+            // two colors are not wrapped in a concat
+            if (colors.length == 2 && positions == null) {
+                switch (type) {
+                    case TYPE_RGB:          return CCFAnimator.rgb(colors[0], colors[1]);
+                    case TYPE_ARGB:         return CCFAnimator.argb(colors[0], colors[1]);
+                    case TYPE_HSV:          return CCFAnimator.hsv(colors[0], colors[1]);
+                    case TYPE_LINEAR_RGB:   return CCFAnimator.linearRgb(colors[0], colors[1]);
+                    default:                return CCFAnimator.linearArgb(colors[0], colors[1]);
+                }
+            }
+
+            if (positions != null) {
+                switch (type) {
+                    case TYPE_RGB:          return CCFAnimator.rgb(colors, positions);
+                    case TYPE_ARGB:         return CCFAnimator.argb(colors, positions);
+                    case TYPE_HSV:          return CCFAnimator.hsv(colors, positions);
+                    default:                throw new IllegalStateException("Positions are not supported for linear type: " + type);
+                }
+            }
+
+            switch (type) {
+                case TYPE_RGB:          return CCFAnimator.rgb(colors);
+                case TYPE_ARGB:         return CCFAnimator.argb(colors);
+                case TYPE_HSV:          return CCFAnimator.hsv(colors);
+                case TYPE_LINEAR_RGB:   return CCFAnimator.linearRgb(colors);
+                default:                return CCFAnimator.linearArgb(colors);
+            }
+        }
+
+        private byte nextByte() {
+            return mData.get(mPosition++);
+        }
+
+        private int nextInt() {
+            final int value = mData.getInt(mPosition);
+            mPosition += 4;
+            return value;
+        }
+
+        private float[] nextFloats(int count) {
+            final float[] floats = new float[count];
+            for (int i = 0; i < count; i++) {
+                floats[i] = mData.getFloat(mPosition);
+                mPosition += 4;
+            }
+            return floats;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Size;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes named animator definitions in {@link CCFPalette} binary format. Definitions mirror factory
+ * methods of {@link CCFAnimator}, for example:
+ * <pre>
+ * new CCFPaletteWriter()
+ *         .add("sunset", CCFPaletteWriter.Definition.hsv(new int[] { 0xFFff9800, 0xFFe91e63, 0xFF3f51b5 }))
+ *         .add("fade", CCFPaletteWriter.Definition.concat(
+ *                 CCFPaletteWriter.Definition.argb(0xFF000000, 0x80000000),
+ *                 CCFPaletteWriter.Definition.rgb(0xFF000000, 0xFFFFFFFF)
+ *         ))
+ *         .write(file);
+ * </pre>
+ */
+public class CCFPaletteWriter {
+
+    private final List<Entry> mEntries = new ArrayList<Entry>();
+
+    /**
+     * @param name unique name of the definition
+     * @param definition to write
+     * @return self
+     */
+    public CCFPaletteWriter add(@NonNull String name, @NonNull Definition definition) {
+        final byte[] bytes = name.getBytes(CCFPalette.UTF_8);
+        for (Entry entry : mEntries) {
+            if (compare(entry.name, bytes) == 0) {
+                throw new IllegalArgumentException("Definition with name `" + name + "` is already added");
+            }
+        }
+        mEntries.add(new Entry(bytes, definition));
+        return this;
+    }
+
+    public void write(@NonNull File file) throws IOException {
+        final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            write(outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Writes all added definitions. Specified stream is not closed
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+
+        final List<Entry> entries = new ArrayList<Entry>(mEntries);
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry lhs, Entry rhs) {
+                return CCFPaletteWriter.compare(lhs.name, rhs.name);
+            }
+        });
+
+        final int count = entries.size();
+
+        // names & data are written into separate blobs first to calculate offsets
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final DataOutputStream dataOutput = new DataOutputStream(data);
+        final int[] dataOffsets = new int[count];
+
+        int namesLength = 0;
+        for (int i = 0; i < count; i++) {
+            final Entry entry = entries.get(i);
+            namesLength += entry.name.length;
+            dataOffsets[i] = dataOutput.size();
+            entry.definition.write(dataOutput);
+        }
+        dataOutput.flush();
+
+        final int namesStart = CCFPalette.HEADER_SIZE + count * CCFPalette.INDEX_ENTRY_SIZE;
+        final int dataStart = namesStart + namesLength;
+
+        final DataOutputStream output = new DataOutputStream(outputStream);
+
+        output.writeInt(CCFPalette.MAGIC);
+        output.writeInt(CCFPalette.VERSION);
+        output.writeInt(count);
+
+        int nameOffset = namesStart;
+        for (int i = 0; i < count; i++) {
+            final int length = entries.get(i).name.length;
+            output.writeInt(nameOffset);
+            output.writeInt(length);
+            output.writeInt(dataStart + dataOffsets[i]);
+            nameOffset += length;
+        }
+
+        for (Entry entry : entries) {
+            output.write(entry.name);
+        }
+
+        data.writeTo(output);
+        output.flush();
+    }
+
+    // unsigned lexicographic comparison of UTF-8 bytes, the same as lookup in CCFPalette
+    private static int compare(@NonNull byte[] lhs, @NonNull byte[] rhs) {
+        for (int i = 0, min = Math.min(lhs.length, rhs.length); i < min; i++) {
+            final int diff = (lhs[i] & 0xFF) - (rhs[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return lhs.length - rhs.length;
+    }
+
+    private static class Entry {
+
+        final byte[] name;
+        final Definition definition;
+
+        Entry(byte[] name, Definition definition) {
+            this.name = name;
+            this.definition = definition;
+        }
+    }
+
+    /**
+     * Definition of an animator to be written. Created with factory methods that mirror {@link CCFAnimator} ones
+     */
+    public static class Definition {
+
+        /**
+         * @see CCFAnimator#rgb(int, int)
+         */
+        public static Definition rgb(@ColorInt int fromColor, @ColorInt int toColor) {
+            return stops(CCFPalette.TYPE_RGB, new int[] { fromColor, toColor }, null);
+        }
+
+        /**
+         * @see CCFAnimator#rgb(int[])
+         */
+        public static Definition rgb(@Size(min = 2) int[] colors) {
+            return stops(CCFPalette.TYPE_RGB, colors, null);
+        }
+
+        /**
+         * @see CCFAnimator#rgb(int[], float[])
+         */
+        public static Definition rgb(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+            return stops(CCFPalette.TYPE_RGB, colors, positions);
+        }
+
+        /**
+         * @see CCFAnimator#argb(int, int)
+         */
+        public static Definition argb(@ColorInt int fromColor, @ColorInt int toColor) {
+            return stops(CCFPalette.TYPE_ARGB, new int[] { fromColor, toColor }, null);
+        }
+
+        /**
+         * @see CCFAnimator#argb(int[])
+         */
+        public static Definition argb(@Size(min = 2) int[] colors) {
+            return stops(CCFPalette.TYPE_ARGB, colors, null);
+        }
+
+        /**
+         * @see CCFAnimator#argb(int[], float[])
+         */
+        public static Definition argb(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+            return stops(CCFPalette.TYPE_ARGB, colors, positions);
+        }
+
+        /**
+         * @see CCFAnimator#alpha(int, int)
+         */
+        public static Definition alpha(@ColorInt int color, @IntRange(from = 0, to = 255) int toAlpha) {
+            return argb(color, CCFAnimator.applyAlpha(color, toAlpha));
+        }
+
+        /**
+         * @see CCFAnimator#hsv(int, int)
+         */
+        public static Definition hsv(@ColorInt int fromColor, @ColorInt int toColor) {
+            return stops(CCFPalette.TYPE_HSV, new int[] { fromColor, toColor }, null);
+        }
+
+        /**
+         * @see CCFAnimator#hsv(int, int, int, int)
+         */
+        public static Definition hsv(
+                @ColorInt int fromColor,
+                @ColorInt int toColor,
+                @IntRange(from = 0, to = 255) int fromAlpha,
+                @IntRange(from = 0, to = 255) int toAlpha
+        ) {
+            return new Definition(
+                    CCFPalette.TYPE_HSV_ALPHA,
+                    new int[] { fromColor, toColor, fromAlpha, toAlpha },
+                    null,
+                    null
+            );
+        }
+
+        /**
+         * @see CCFAnimator#hsv(int[])
+         */
+        public static Definition hsv(@Size(min = 2) int[] colors) {
+            return stops(CCFPalette.TYPE_HSV, colors, null);
+        }
+
+        /**
+         * @see CCFAnimator#hsv(int[], float[])
+         */
+        public static Definition hsv(@Size(min = 2) int[] colors, @NonNull float[] positions) {
+            return stops(CCFPalette.TYPE_HSV, colors, positions);
+        }
+
+        /**
+         * @see CCFAnimator#linearRgb(int, int)
+         */
+        public static Definition linearRgb(@ColorInt int fromColor, @ColorInt int toColor) {
+            return stops(CCFPalette.TYPE_LINEAR_RGB, new int[] { fromColor, toColor }, null);
+        }
+
+        /**
+         * @see CCFAnimator#linearRgb(int[])
+         */
+        public static Definition linearRgb(@Size(min = 2) int[] colors) {
+            return stops(CCFPalette.TYPE_LINEAR_RGB, colors, null);
+        }
+
+        /**
+         * @see CCFAnimator#linearArgb(int, int)
+         */
+        public static Definition linearArgb(@ColorInt int fromColor, @ColorInt int toColor) {
+            return stops(CCFPalette.TYPE_LINEAR_ARGB, new int[] { fromColor, toColor }, null);
+        }
+
+        /**
+         * @see CCFAnimator#linearArgb(int[])
+         */
+        public static Definition linearArgb(@Size(min = 2) int[] colors) {
+            return stops(CCFPalette.TYPE_LINEAR_ARGB, colors, null);
+        }
+
+        /**
+         * @see CCFAnimator#concat(CCFAnimator...)
+         */
+        public static Definition concat(@NonNull Definition... definitions) {
+            return new Definition(CCFPalette.TYPE_CONCAT, null, null, definitions.clone());
+        }
+
+        /**
+         * @see CCFAnimator#concat(float[], CCFAnimator...)
+         */
+        public static Definition concat(@NonNull float[] positions, @NonNull Definition... definitions) {
+            if (positions.length != definitions.length + 1) {
+                throw new IllegalArgumentException("Positions length must be `definitions.length + 1`, " +
+                        "positions: " + positions.length + ", definitions: " + definitions.length);
+            }
+            return new Definition(CCFPalette.TYPE_CONCAT, null, positions.clone(), definitions.clone());
+        }
+
+        private static Definition stops(byte type, @NonNull int[] colors, @Nullable float[] positions) {
+            if (colors.length < 2) {
+                throw new IllegalArgumentException("At least 2 colors are required, specified: " + colors.length);
+            }
+            if (positions != null && positions.length != colors.length) {
+                throw new IllegalArgumentException("Positions length must be equal to colors length, " +
+                        "positions: " + positions.length + ", colors: " + colors.length);
+            }
+            return new Definition(
+                    type,
+                    colors.clone(),
+                    positions != null ? positions.clone() : null,
+                    null
+            );
+        }
+
+        private final byte mType;
+        private final int[] mValues;
+        private final float[] mPositions;
+        private final Definition[] mChildren;
+
+        private Definition(byte type, int[] values, float[] positions, Definition[] children) {
+            mType = type;
+            mValues = values;
+            mPositions = positions;
+            mChildren = children;
+        }
+
+        void write(@NonNull DataOutputStream output) throws IOException {
+
+            output.writeByte(mType);
+
+            switch (mType) {
+
+                case CCFPalette.TYPE_HSV_ALPHA:
+                    for (int value : mValues) {
+                        output.writeInt(value);
+                    }
+                    break;
+
+                case CCFPalette.TYPE_CONCAT:
+                    output.writeInt(mChildren.length);
+                    writePositions(output);
+                    for (Definition child : mChildren) {
+                        child.write(output);
+                    }
+                    break;
+
+                default:
+                    output.writeInt(mValues.length);
+                    for (int value : mValues) {
+                        output.writeInt(value);
+                    }
+                    writePositions(output);
+                    break;
+            }
+        }
+
+        private void writePositions(@NonNull DataOutputStream output) throws IOException {
+            output.writeByte(mPositions != null ? 1 : 0);
+            if (mPositions != null) {
+                for (float position : mPositions) {
+                    output.writeFloat(position);
+                }
+            }
+        }
+    }
+}
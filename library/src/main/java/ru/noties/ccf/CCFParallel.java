@@ -0,0 +1,257 @@
+package ru.noties.ccf;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel bulk evaluation of a {@link CCFAnimator} for very large numbers of colors (heatmaps,
+ * server-side images). Output is split into chunks evaluated on a `ForkJoinPool`, each chunk with
+ * the same bulk loop as {@link CCFAnimator#getColors(float[], int, int[], int, int, int)}. Below `threshold`
+ * colors evaluation stays on the calling thread.
+ *
+ * Built-in animators keep no mutable state, so one instance is safely evaluated from all workers
+ * (custom subclasses must be thread-safe as well). `ForkJoinPool` is available since API 21 (and on any JVM):
+ * without it methods that use the shared pool evaluate on the calling thread, methods that take a pool must not be called
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class CCFParallel {
+
+    /**
+     * Default number of colors below which evaluation is not split
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    /**
+     * Evaluates colors for all specified fractions on the shared pool (on the calling thread if `ForkJoinPool` is not available)
+     *
+     * @see #getColors(CCFAnimator, float[], int, int[], int, int, ForkJoinPool, int)
+     */
+    public static void getColors(
+            @NonNull CCFAnimator animator,
+            @NonNull float[] fractions,
+            @NonNull int[] out
+    ) {
+        if (!isPoolAvailable()) {
+            animator.getColors(fractions, out);
+            return;
+        }
+        getColors(animator, fractions, 0, out, 0, fractions.length, SharedPool.POOL, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Evaluates colors for `length` fractions starting at `fractionsOffset` and stores them in `out`
+     * starting at `outOffset`
+     *
+     * @param animator to evaluate
+     * @param fractions fractions to evaluate
+     * @param fractionsOffset index of the first fraction
+     * @param out array to store evaluated colors
+     * @param outOffset index in `out` for the first color
+     * @param length number of fractions to evaluate
+     * @param pool to run evaluation on
+     * @param threshold number of colors below which evaluation is not split any further
+     */
+    public static void getColors(
+            @NonNull CCFAnimator animator,
+            @NonNull float[] fractions,
+            int fractionsOffset,
+            @NonNull int[] out,
+            int outOffset,
+            int length,
+            @NonNull ForkJoinPool pool,
+            @IntRange(from = 1) int threshold
+    ) {
+
+        checkThreshold(threshold);
+
+        if (length <= threshold) {
+            animator.getColors(fractions, fractionsOffset, out, outOffset, 1, length);
+            return;
+        }
+
+        // validate once on the calling thread, so an error is not wrapped by the pool
+        checkBounds(fractions.length, fractionsOffset, length);
+        checkBounds(out.length, outOffset, length);
+
+        pool.invoke(new FractionsAction(animator, fractions, fractionsOffset, out, outOffset, length, threshold));
+    }
+
+    /**
+     * Fills whole `out` array with evenly spaced colors on the shared pool (on the calling thread if `ForkJoinPool` is not available)
+     *
+     * @see #getColors(CCFAnimator, int[], int, int, ForkJoinPool, int)
+     */
+    public static void getColors(@NonNull CCFAnimator animator, @NonNull int[] out) {
+        if (!isPoolAvailable()) {
+            animator.getColors(out);
+            return;
+        }
+        getColors(animator, out, 0, out.length, SharedPool.POOL, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Stores `count` evenly spaced colors (first one is for fraction `.0F`, last one is for `1.F`)
+     * in `out` array starting at `offset`
+     *
+     * @param animator to evaluate
+     * @param out array to store colors
+     * @param offset index in `out` for the first color
+     * @param count number of colors to evaluate
+     * @param pool to run evaluation on
+     * @param threshold number of colors below which evaluation is not split any further
+     */
+    public static void getColors(
+            @NonNull CCFAnimator animator,
+            @NonNull int[] out,
+            int offset,
+            int count,
+            @NonNull ForkJoinPool pool,
+            @IntRange(from = 1) int threshold
+    ) {
+
+        checkThreshold(threshold);
+
+        if (count <= threshold) {
+            animator.getColors(out, offset, count, 1);
+            return;
+        }
+
+        checkBounds(out.length, offset, count);
+
+        pool.invoke(new SweepAction(animator, 1.F / (count - 1), out, offset, 0, count, threshold));
+    }
+
+    // checked before the shared pool is touched, so `SharedPool` is never initialized without `ForkJoinPool`
+    static boolean isPoolAvailable() {
+        return POOL_AVAILABLE;
+    }
+
+    // detected by class lookup instead of platform version, so it also works on a plain JVM
+    private static final boolean POOL_AVAILABLE = detectPool();
+
+    private static boolean detectPool() {
+        try {
+            Class.forName("java.util.concurrent.ForkJoinPool");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void checkThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1, specified: " + threshold);
+        }
+    }
+
+    private static void checkBounds(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > arrayLength) {
+            throw new IndexOutOfBoundsException("Array length: " + arrayLength + ", offset: " + offset
+                    + ", length: " + length);
+        }
+    }
+
+    // created on first use only
+    private static class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    private static class FractionsAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CCFAnimator mAnimator;
+        private final float[] mFractions;
+        private final int mFractionsOffset;
+        private final int[] mOut;
+        private final int mOutOffset;
+        private final int mLength;
+        private final int mThreshold;
+
+        FractionsAction(
+                CCFAnimator animator,
+                float[] fractions,
+                int fractionsOffset,
+                int[] out,
+                int outOffset,
+                int length,
+                int threshold
+        ) {
+            mAnimator = animator;
+            mFractions = fractions;
+            mFractionsOffset = fractionsOffset;
+            mOut = out;
+            mOutOffset = outOffset;
+            mLength = length;
+            mThreshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (mLength <= mThreshold) {
+                mAnimator.evaluateColors(mFractions, mFractionsOffset, mOut, mOutOffset, 1, mLength);
+                return;
+            }
+
+            final int half = mLength >>> 1;
+            invokeAll(
+                    new FractionsAction(mAnimator, mFractions, mFractionsOffset, mOut, mOutOffset, half, mThreshold),
+                    new FractionsAction(mAnimator, mFractions, mFractionsOffset + half, mOut, mOutOffset + half, mLength - half, mThreshold)
+            );
+        }
+    }
+
+    private static class SweepAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CCFAnimator mAnimator;
+        private final float mStep;
+        private final int[] mOut;
+        private final int mOffset;
+        private final int mFrom;
+        private final int mCount;
+        private final int mThreshold;
+
+        SweepAction(
+                CCFAnimator animator,
+                float step,
+                int[] out,
+                int offset,
+                int from,
+                int count,
+                int threshold
+        ) {
+            mAnimator = animator;
+            mStep = step;
+            mOut = out;
+            mOffset = offset;
+            mFrom = from;
+            mCount = count;
+            mThreshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (mCount <= mThreshold) {
+                mAnimator.sweepColors(.0F, mStep, mFrom, mOut, mOffset + mFrom, 1, mCount);
+                return;
+            }
+
+            final int half = mCount >>> 1;
+            invokeAll(
+                    new SweepAction(mAnimator, mStep, mOut, mOffset, mFrom, half, mThreshold),
+                    new SweepAction(mAnimator, mStep, mOut, mOffset, mFrom + half, mCount - half, mThreshold)
+            );
+        }
+    }
+
+    private CCFParallel() {}
+}
@@ -0,0 +1,358 @@
+package ru.noties.ccf;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Replaces a gradient with many (near-collinear) stops by a reduced set of stops that reproduces
+ * the original curve within an error bound. The original {@link CCFAnimator} is sampled at `resolution`
+ * evenly spaced fractions (sample `i` is fraction `i / (resolution - 1)`, the same one that fitting and
+ * the reported error use), then stops are placed greedily: each segment is extended as far as all samples
+ * it covers stay within `tolerance`. Greedy placement is not guaranteed to find the smallest set of stops.
+ * Result is built with positions, so fewer stops mean fewer concat segments (less memory, faster lookup)
+ * and smaller palette files.
+ * When original stops are known, pass them directly: result then never has more stops than the original.
+ *
+ * <pre>
+ * final CCFSimplifier.Result result = new CCFSimplifier()
+ *         .mode(CCFSimplifier.MODE_HSV)
+ *         .metric(CCFSimplifier.METRIC_REDMEAN)
+ *         .tolerance(2.F)
+ *         .simplify(designerColors);
+ * final CCFAnimator animator = result.toAnimator();
+ * </pre>
+ */
+public class CCFSimplifier {
+
+    /**
+     * Result stops are interpolated as {@link CCFAnimator#argb(int[], float[])}
+     */
+    public static final int MODE_ARGB = 0;
+
+    /**
+     * Result stops are interpolated as {@link CCFAnimator#hsv(int[], float[])} (alpha is ignored)
+     */
+    public static final int MODE_HSV = 1;
+
+    /**
+     * Error is the maximum absolute difference of a channel (alpha included), 0-255
+     */
+    public static final int METRIC_CHANNEL = 0;
+
+    /**
+     * Error is the "redmean" weighted euclidean RGB distance (a cheap approximation of perceived difference)
+     * scaled to channel units (0-255) or the difference of alpha if it's bigger. A difference of 1 in all
+     * channels is 1, in a single channel it is 0.5-0.7
+     */
+    public static final int METRIC_REDMEAN = 1;
+
+    private static final int DEFAULT_RESOLUTION = 1024;
+
+    private int mMode = MODE_ARGB;
+    private int mMetric = METRIC_CHANNEL;
+    private float mTolerance = 1.F;
+    private int mResolution = DEFAULT_RESOLUTION;
+
+    /**
+     * @param mode {@link #MODE_ARGB} (default) or {@link #MODE_HSV}
+     * @return self
+     */
+    public CCFSimplifier mode(int mode) {
+        if (mode != MODE_ARGB && mode != MODE_HSV) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        mMode = mode;
+        return this;
+    }
+
+    /**
+     * @param metric {@link #METRIC_CHANNEL} (default) or {@link #METRIC_REDMEAN}
+     * @return self
+     */
+    public CCFSimplifier metric(int metric) {
+        if (metric != METRIC_CHANNEL && metric != METRIC_REDMEAN) {
+            throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+        mMetric = metric;
+        return this;
+    }
+
+    /**
+     * @param tolerance maximum allowed error in units of the metric, default is 1
+     * @return self
+     */
+    public CCFSimplifier tolerance(float tolerance) {
+        if (!(tolerance >= .0F)) {
+            throw new IllegalArgumentException("Tolerance must not be negative, specified: " + tolerance);
+        }
+        mTolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * @param resolution number of samples of the original curve (minimum is 2), default is 1024.
+     *                   Should be bigger than the number of original stops
+     * @return self
+     */
+    public CCFSimplifier resolution(@IntRange(from = 2) int resolution) {
+        if (resolution < 2) {
+            throw new IllegalArgumentException("Resolution must be at least 2, specified: " + resolution);
+        }
+        mResolution = resolution;
+        return this;
+    }
+
+    /**
+     * @param colors original stops, evenly spaced
+     * @return {@link Result}
+     * @see #simplify(int[], float[])
+     */
+    @NonNull
+    public Result simplify(@NonNull int[] colors) {
+        return simplify(colors, null);
+    }
+
+    /**
+     * Simplifies stops interpolated in the current mode. If they could not be reduced, the original
+     * stops are returned, so the result never has more stops than the original
+     *
+     * @param colors original stops
+     * @param positions of the original stops, null for evenly spaced
+     * @return {@link Result}
+     */
+    @NonNull
+    public Result simplify(@NonNull int[] colors, @Nullable float[] positions) {
+
+        final CCFAnimator original;
+        if (positions == null) {
+            original = mMode == MODE_HSV
+                    ? CCFAnimator.hsv(colors)
+                    : CCFAnimator.argb(colors);
+        } else {
+            original = mMode == MODE_HSV
+                    ? CCFAnimator.hsv(colors, positions)
+                    : CCFAnimator.argb(colors, positions);
+        }
+
+        final int[] samples = sample(original);
+        final Result result = fit(samples);
+        if (result.size() < colors.length) {
+            return result;
+        }
+
+        final float[] originalPositions;
+        if (positions == null) {
+            final float last = colors.length - 1;
+            originalPositions = new float[colors.length];
+            for (int i = 0; i < colors.length; i++) {
+                originalPositions[i] = i / last;
+            }
+        } else {
+            originalPositions = positions.clone();
+        }
+
+        return measure(new Result(mMode, colors.clone(), originalPositions), samples);
+    }
+
+    /**
+     * Simplifies an arbitrary curve. As original stops are not known, result could have more stops
+     * than the original (for example, when tolerance is less than rounding error of the original),
+     * use {@link #simplify(int[], float[])} when stops are known
+     *
+     * @param animator original curve
+     * @return {@link Result}
+     */
+    @NonNull
+    public Result simplify(@NonNull CCFAnimator animator) {
+        return fit(sample(animator));
+    }
+
+    // fractions are computed exactly as in `fits` & `measure` (not as `step * i` of `getColors`)
+    @NonNull
+    private int[] sample(@NonNull CCFAnimator animator) {
+        final int[] samples = new int[mResolution];
+        final float last = samples.length - 1;
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = animator.getColor(i / last);
+        }
+        return samples;
+    }
+
+    @NonNull
+    private Result fit(@NonNull int[] samples) {
+
+        final int length = samples.length;
+        final int last = length - 1;
+
+        final float[] hsv;
+        if (mMode == MODE_HSV) {
+            hsv = new float[length * 3];
+            final float[] out = new float[3];
+            for (int i = 0; i < length; i++) {
+                CCFAnimator.colorToHSV(samples[i], out);
+                System.arraycopy(out, 0, hsv, i * 3, 3);
+            }
+        } else {
+            hsv = null;
+        }
+
+        // indices of samples that become stops
+        final int[] stops = new int[length];
+        int count = 0;
+
+        int start = 0;
+        stops[count++] = 0;
+
+        while (start < last) {
+            int end = start + 1;
+            while (end < last && fits(samples, hsv, start, end + 1)) {
+                end += 1;
+            }
+            stops[count++] = end;
+            start = end;
+        }
+
+        final int[] colors = new int[count];
+        final float[] positions = new float[count];
+        for (int i = 0; i < count; i++) {
+            colors[i] = samples[stops[i]];
+            positions[i] = stops[i] / (float) last;
+        }
+
+        return measure(new Result(mMode, colors, positions), samples);
+    }
+
+    // maximum error is measured on the actual animator
+    @NonNull
+    private Result measure(@NonNull Result result, @NonNull int[] samples) {
+        final CCFAnimator animator = result.toAnimator();
+        final float last = samples.length - 1;
+        float maxError = .0F;
+        for (int i = 0; i < samples.length; i++) {
+            maxError = Math.max(maxError, error(samples[i], animator.getColor(i / last)));
+        }
+        result.mMaxError = maxError;
+        return result;
+    }
+
+    // whether all samples between `start` and `end` are within tolerance of a segment between them
+    private boolean fits(@NonNull int[] samples, float[] hsv, int start, int end) {
+
+        final int from = samples[start];
+        final int to = samples[end];
+
+        // the same arithmetic as of a positioned ConcatAnimator, so result is evaluated exactly as checked here
+        final float last = samples.length - 1;
+        final float position = start / last;
+        final float scale = 1.F / ((end / last) - position);
+
+        for (int i = start + 1; i < end; i++) {
+            final float fraction = (i / last - position) * scale;
+            final int color = hsv != null
+                    ? hsv(hsv, start, end, fraction)
+                    : CCFAnimator.lerpArgb(from, to, fraction);
+            if (error(samples[i], color) > mTolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private float error(int first, int second) {
+
+        final int a = Math.abs((first >>> 24) - (second >>> 24));
+        final int r = ((first >> 16) & 0xFF) - ((second >> 16) & 0xFF);
+        final int g = ((first >> 8) & 0xFF) - ((second >> 8) & 0xFF);
+        final int b = (first & 0xFF) - (second & 0xFF);
+
+        if (mMetric == METRIC_CHANNEL) {
+            return Math.max(a, Math.max(Math.abs(r), Math.max(Math.abs(g), Math.abs(b))));
+        }
+
+        // weights sum up to ~9, so distance is divided by 3 to be in channel units
+        final float redMean = (((first >> 16) & 0xFF) + ((second >> 16) & 0xFF)) / 2.F;
+        final float distance = (float) Math.sqrt(
+                (2.F + redMean / 256.F) * r * r
+                        + 4.F * g * g
+                        + (2.F + (255.F - redMean) / 256.F) * b * b
+        ) / 3.F;
+        return Math.max(distance, a);
+    }
+
+    // the same as HSVAnimator and HSVBackwardsAnimator
+    private static int hsv(@NonNull float[] hsv, int start, int end, float fraction) {
+
+        final int from = start * 3;
+        final int to = end * 3;
+
+        return CCFAnimator.hsvToColor(
+                0xFF,
+                CCFAnimator.hsvHue(hsv[from], hsv[to], fraction),
+                hsv[from + 1] + ((hsv[to + 1] - hsv[from + 1]) * fraction),
+                hsv[from + 2] + ((hsv[to + 2] - hsv[from + 2]) * fraction)
+        );
+    }
+
+    public static class Result {
+
+        private final int mMode;
+        private final int[] mColors;
+        private final float[] mPositions;
+
+        private float mMaxError;
+
+        Result(int mode, @NonNull int[] colors, @NonNull float[] positions) {
+            mMode = mode;
+            mColors = colors;
+            mPositions = positions;
+        }
+
+        /**
+         * @return colors of stops
+         */
+        @NonNull
+        public int[] getColors() {
+            return mColors.clone();
+        }
+
+        /**
+         * @return positions of stops (the first one is `.0F`, the last one is `1.F`)
+         */
+        @NonNull
+        public float[] getPositions() {
+            return mPositions.clone();
+        }
+
+        /**
+         * @return number of stops
+         */
+        public int size() {
+            return mColors.length;
+        }
+
+        /**
+         * @return maximum error of {@link #toAnimator()} at sampled fractions, in units of the metric
+         */
+        public float getMaxError() {
+            return mMaxError;
+        }
+
+        @NonNull
+        public CCFAnimator toAnimator() {
+            return mMode == MODE_HSV
+                    ? CCFAnimator.hsv(mColors, mPositions)
+                    : CCFAnimator.argb(mColors, mPositions);
+        }
+
+        /**
+         * @return definition to store simplified stops with {@link CCFPaletteWriter}
+         */
+        @NonNull
+        public CCFPaletteWriter.Definition toDefinition() {
+            return mMode == MODE_HSV
+                    ? CCFPaletteWriter.Definition.hsv(mColors, mPositions)
+                    : CCFPaletteWriter.Definition.argb(mColors, mPositions);
+        }
+    }
+}
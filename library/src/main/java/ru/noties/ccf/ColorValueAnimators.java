@@ -0,0 +1,103 @@
+package ru.noties.ccf;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Creates ValueAnimators for {@link CCFAnimator#asValueAnimator(CCFAnimator.OnNewColorListener)}. All
+ * ValueAnimator wiring lives here, so {@link CCFAnimator} and {@link DistinctColorListener} reference
+ * no Android classes in their signatures or casts and could be loaded on a plain JVM
+ */
+class ColorValueAnimators {
+
+    @NonNull
+    static ValueAnimator create(
+            @NonNull final CCFAnimator ccfAnimator,
+            @NonNull final CCFAnimator.OnNewColorListener onNewColorListener,
+            @Nullable CCFMetrics metrics,
+            long frameBudgetNanos
+    ) {
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(.0F, 1.F);
+
+        if (onNewColorListener instanceof DistinctColorListener) {
+            final DistinctColorListener distinct = (DistinctColorListener) onNewColorListener;
+            animator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationStart(Animator animation) {
+                    distinct.reset();
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    distinct.flush();
+                }
+            });
+        }
+
+        if (metrics != null) {
+            animator.addUpdateListener(new InstrumentedUpdateListener(ccfAnimator, onNewColorListener, metrics, frameBudgetNanos));
+            return animator;
+        }
+
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                final float fraction = animation.getAnimatedFraction();
+                onNewColorListener.onNewColor(ccfAnimator.getColor(fraction));
+            }
+        });
+        return animator;
+    }
+
+    private static class InstrumentedUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+
+        private final CCFAnimator mAnimator;
+        private final CCFAnimator.OnNewColorListener mOnNewColorListener;
+        private final CCFMetrics mMetrics;
+        private final long mFrameBudgetNanos;
+
+        // DistinctColorListener reports emitted & suppressed colors itself
+        private final boolean mReportEmitted;
+
+        InstrumentedUpdateListener(
+                @NonNull CCFAnimator animator,
+                @NonNull CCFAnimator.OnNewColorListener onNewColorListener,
+                @NonNull CCFMetrics metrics,
+                long frameBudgetNanos
+        ) {
+            this.mAnimator = animator;
+            this.mOnNewColorListener = onNewColorListener;
+            this.mMetrics = metrics;
+            this.mFrameBudgetNanos = frameBudgetNanos;
+            this.mReportEmitted = !(onNewColorListener instanceof DistinctColorListener);
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+
+            final float fraction = animation.getAnimatedFraction();
+
+            final long start = System.nanoTime();
+            final int color = mAnimator.getColor(fraction);
+            final long evaluated = System.nanoTime();
+
+            mMetrics.onEvaluated(mAnimator, 1, evaluated - start);
+            if (mReportEmitted) {
+                mMetrics.onEmitted(color);
+            }
+
+            mOnNewColorListener.onNewColor(color);
+
+            final long dispatchNanos = System.nanoTime() - evaluated;
+            if (dispatchNanos > mFrameBudgetNanos) {
+                mMetrics.onSlowFrame(dispatchNanos, mFrameBudgetNanos);
+            }
+        }
+    }
+
+    private ColorValueAnimators() {}
+}
@@ -0,0 +1,138 @@
+package ru.noties.ccf;
+
+import android.support.annotation.ColorInt;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+/**
+ * {@link CCFAnimator.OnNewColorListener} that delivers a color to the wrapped listener only if it differs
+ * from the previously delivered one. With a `tolerance` near-duplicates are suppressed as well: a color
+ * is delivered only if at least one channel differs from the previously delivered color by more than
+ * `tolerance`. Delivered and suppressed colors are counted.
+ *
+ * When passed to {@link CCFAnimator#asValueAnimator(CCFAnimator.OnNewColorListener)} it follows
+ * the created animation: it's reset when animation starts and, when animation ends,
+ * the last suppressed color (if any) is delivered, so a listener always ends up with the exact final color.
+ * Delivered and suppressed colors are also reported to {@link CCFMetrics} installed at the time of creation
+ *
+ * @see CCFAnimator#asValueAnimator(CCFAnimator.OnNewColorListener, int)
+ */
+public class DistinctColorListener implements CCFAnimator.OnNewColorListener {
+
+    private final CCFAnimator.OnNewColorListener mOnNewColorListener;
+    private final int mTolerance;
+    private final CCFMetrics mMetrics;
+
+    private boolean mHasDelivered;
+    private int mDeliveredColor;
+
+    private boolean mHasPending;
+    private int mPendingColor;
+
+    private int mDeliveredCount;
+    private int mSuppressedCount;
+
+    /**
+     * Suppresses only exact duplicates
+     *
+     * @param onNewColorListener listener to deliver distinct colors to
+     */
+    public DistinctColorListener(@NonNull CCFAnimator.OnNewColorListener onNewColorListener) {
+        this(onNewColorListener, 0);
+    }
+
+    /**
+     * @param onNewColorListener listener to deliver distinct colors to
+     * @param tolerance maximum difference of a channel (0-255) for a color to be treated as a duplicate
+     */
+    public DistinctColorListener(
+            @NonNull CCFAnimator.OnNewColorListener onNewColorListener,
+            @IntRange(from = 0, to = 255) int tolerance
+    ) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative, specified: " + tolerance);
+        }
+        mOnNewColorListener = onNewColorListener;
+        mTolerance = tolerance;
+        mMetrics = CCFAnimator.getMetrics();
+    }
+
+    @Override
+    public void onNewColor(@ColorInt int color) {
+
+        if (mHasDelivered && isSame(mDeliveredColor, color)) {
+            mSuppressedCount += 1;
+            if (mMetrics != null) {
+                mMetrics.onSuppressed(color);
+            }
+            mHasPending = color != mDeliveredColor;
+            mPendingColor = color;
+            return;
+        }
+
+        deliver(color);
+    }
+
+    /**
+     * Delivers the last suppressed color if it differs from the last delivered one
+     */
+    public void flush() {
+        if (mHasPending) {
+            deliver(mPendingColor);
+        }
+    }
+
+    /**
+     * Forgets the last delivered color, so the next one is always delivered. Counters are kept
+     */
+    public void reset() {
+        mHasDelivered = false;
+        mHasPending = false;
+    }
+
+    /**
+     * @return number of colors delivered to the wrapped listener
+     */
+    public int getDeliveredCount() {
+        return mDeliveredCount;
+    }
+
+    /**
+     * @return number of suppressed colors
+     */
+    public int getSuppressedCount() {
+        return mSuppressedCount;
+    }
+
+    public int getTolerance() {
+        return mTolerance;
+    }
+
+    private void deliver(@ColorInt int color) {
+        mHasDelivered = true;
+        mDeliveredColor = color;
+        mHasPending = false;
+        mDeliveredCount += 1;
+        if (mMetrics != null) {
+            mMetrics.onEmitted(color);
+        }
+        mOnNewColorListener.onNewColor(color);
+    }
+
+    private boolean isSame(@ColorInt int first, @ColorInt int second) {
+
+        if (first == second) {
+            return true;
+        }
+
+        if (mTolerance == 0) {
+            return false;
+        }
+
+        final int tolerance = mTolerance;
+        return Math.abs((first >>> 24) - (second >>> 24)) <= tolerance
+                && Math.abs(((first >> 16) & 0xFF) - ((second >> 16) & 0xFF)) <= tolerance
+                && Math.abs(((first >> 8) & 0xFF) - ((second >> 8) & 0xFF)) <= tolerance
+                && Math.abs((first & 0xFF) - (second & 0xFF)) <= tolerance;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.noties.ccf;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Frame source of {@link CCFEngine} and {@link CCFColorAnimator}. Since API 16 frames are delivered by
+ * `Choreographer` with its frame time (vsync time shared by all animations of a frame, converted
+ * to `SystemClock.uptimeMillis()` time base), below it by an infinitely repeating ValueAnimator with
+ * current time. Must be used from a thread with a Looper (main thread)
+ */
+class FrameTicker {
+
+    interface Callback {
+        void onFrame(long frameTime);
+    }
+
+    /**
+     * @return current time in the time base of frames
+     */
+    static long now() {
+        return SystemClock.uptimeMillis();
+    }
+
+    private final Source mSource;
+
+    FrameTicker(@NonNull Callback callback) {
+        mSource = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN
+                ? new ChoreographerSource(callback)
+                : new AnimatorSource(callback);
+    }
+
+    void start() {
+        mSource.start();
+    }
+
+    void stop() {
+        mSource.stop();
+    }
+
+    private interface Source {
+        void start();
+        void stop();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class ChoreographerSource implements Source, Choreographer.FrameCallback {
+
+        private static final long NANOS_PER_MILLI = 1000000L;
+
+        private final Callback mCallback;
+
+        private boolean mRunning;
+
+        ChoreographerSource(@NonNull Callback callback) {
+            mCallback = callback;
+        }
+
+        @Override
+        public void start() {
+            if (!mRunning) {
+                mRunning = true;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void stop() {
+            if (mRunning) {
+                mRunning = false;
+                Choreographer.getInstance().removeFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mRunning) {
+                // posted before the callback, so the callback could stop ticking
+                Choreographer.getInstance().postFrameCallback(this);
+                mCallback.onFrame(frameTimeNanos / NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static class AnimatorSource implements Source {
+
+        private final ValueAnimator mAnimator;
+
+        AnimatorSource(@NonNull final Callback callback) {
+            mAnimator = ValueAnimator.ofFloat(.0F, 1.F);
+            mAnimator.setDuration(1000L);
+            mAnimator.setRepeatCount(ValueAnimator.INFINITE);
+            mAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    callback.onFrame(now());
+                }
+            });
+        }
+
+        @Override
+        public void start() {
+            if (!mAnimator.isStarted()) {
+                mAnimator.start();
+            }
+        }
+
+        @Override
+        public void stop() {
+            mAnimator.cancel();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.noties.ccf;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// a table baked with an interpolator must hold exactly `getColor` of the clamped interpolated entries
+public class BakeInterpolatorTest {
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            CCFAnimator.argb(0x20FF0000, 0xFF00FF00),
+            CCFAnimator.hsv(0xFF00FF00, 0xFF0000FF)
+    );
+
+    @Test
+    public void accelerate_sameAsGetColor() {
+        check(new TimeInterpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                return input * input;
+            }
+        });
+    }
+
+    @Test
+    public void overshoot_clamped() {
+        // anticipate-overshoot like curve that leaves [0..1] on both ends
+        check(new TimeInterpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                return input * input * (3.F * input - 1.F) * 1.2F - .1F * input;
+            }
+        });
+    }
+
+    private static void check(TimeInterpolator interpolator) {
+        for (int resolution : new int[] { 2, 3, 64, 257 }) {
+
+            final CCFAnimator baked = ANIMATOR.bake(interpolator, resolution, false);
+            final int last = resolution - 1;
+
+            for (int i = 0; i <= last; i++) {
+                final float fraction = (float) i / last;
+                final float interpolated = interpolator.getInterpolation(fraction);
+                assertColor("resolution: " + resolution + ", entry: " + i,
+                        ANIMATOR.getColor(CCFAnimator.clamp(interpolated)), baked.getColor(fraction));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// a baked table must hold exactly `getColor` of its entries and resolve a fraction to the nearest entry
+public class BakeTest {
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            new float[] { .0F, .3F, 1.F },
+            CCFAnimator.argb(0x20FF0000, 0xFF00FF00),
+            CCFAnimator.hsv(new int[] { 0xFF00FF00, 0xFF0000FF, 0xFFFF00FF })
+    );
+
+    @Test
+    public void entries_sameAsGetColor() {
+        for (int resolution : new int[] { 2, 3, 37, 256, 1024 }) {
+
+            final CCFAnimator baked = ANIMATOR.bake(resolution);
+            final CCFAnimator blended = ANIMATOR.bake(resolution, true);
+            final int last = resolution - 1;
+
+            for (int i = 0; i <= last; i++) {
+                final float fraction = (float) i / last;
+                final int expected = ANIMATOR.getColor(fraction);
+                assertColor("resolution: " + resolution + ", entry: " + i, expected, baked.getColor(fraction));
+                // `fraction * last` could be just below the entry, then it's blended with the previous one
+                assertWithin("blended, resolution: " + resolution + ", entry: " + i, expected, blended.getColor(fraction), 1);
+            }
+        }
+    }
+
+    @Test
+    public void fraction_nearestEntry() {
+
+        final Random random = new Random(1L);
+
+        for (int resolution : new int[] { 2, 3, 37, 256, 1024 }) {
+
+            final CCFAnimator baked = ANIMATOR.bake(resolution);
+            final int last = resolution - 1;
+
+            for (int i = 0; i < 1000; i++) {
+                final float fraction = random.nextFloat();
+                final int entry = (int) (fraction * last + .5F);
+                assertColor("resolution: " + resolution + ", fraction: " + fraction,
+                        ANIMATOR.getColor((float) entry / last), baked.getColor(fraction));
+            }
+
+            // clamped outside of [0..1]
+            assertColor("below", ANIMATOR.getColor(.0F), baked.getColor(-1.F));
+            assertColor("above", ANIMATOR.getColor(1.F), baked.getColor(2.F));
+        }
+    }
+
+    @Test
+    public void blended_rgb_withinRoundingOfGetColor() {
+
+        // segment bounds fall on table entries, so blending two entries is exact up to rounding
+        final CCFAnimator animator = CCFAnimator.argb(new int[] { 0xFF000000, 0x80FFFFFF, 0xFF102030 });
+        final CCFAnimator blended = animator.bake(257, true);
+
+        final Random random = new Random(2L);
+        for (int i = 0; i < 10000; i++) {
+            final float fraction = random.nextFloat();
+            assertWithin("fraction: " + fraction, animator.getColor(fraction), blended.getColor(fraction), 1);
+        }
+    }
+}
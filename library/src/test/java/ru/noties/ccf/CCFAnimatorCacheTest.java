@@ -0,0 +1,69 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static ru.noties.ccf.TestUtils.assertColors;
+
+// a cached animator must evaluate exactly as the one created by the factory method
+public class CCFAnimatorCacheTest {
+
+    private static final int[] COLORS = { 0x80FF0000, 0xFF00FF00, 0x100000FF, 0xFFFFFFFF };
+
+    @Test
+    public void sameAsFactory() {
+
+        final CCFAnimatorCache cache = new CCFAnimatorCache(32);
+
+        final int from = COLORS[0];
+        final int to = COLORS[1];
+
+        assertSameColors(CCFAnimator.rgb(from, to), cache.rgb(from, to));
+        assertSameColors(CCFAnimator.rgb(COLORS), cache.rgb(COLORS));
+        assertSameColors(CCFAnimator.argb(from, to), cache.argb(from, to));
+        assertSameColors(CCFAnimator.argb(COLORS), cache.argb(COLORS));
+        assertSameColors(CCFAnimator.alpha(from, 0x20), cache.alpha(from, 0x20));
+        assertSameColors(CCFAnimator.hsv(from, to), cache.hsv(from, to));
+        assertSameColors(CCFAnimator.hsv(from, to, 0x10, 0xF0), cache.hsv(from, to, 0x10, 0xF0));
+        assertSameColors(CCFAnimator.hsv(COLORS), cache.hsv(COLORS));
+        assertSameColors(CCFAnimator.linearRgb(from, to), cache.linearRgb(from, to));
+        assertSameColors(CCFAnimator.linearRgb(COLORS), cache.linearRgb(COLORS));
+        assertSameColors(CCFAnimator.linearArgb(from, to), cache.linearArgb(from, to));
+        assertSameColors(CCFAnimator.linearArgb(COLORS), cache.linearArgb(COLORS));
+
+        assertEquals(12, cache.missCount());
+        assertEquals(0, cache.hitCount());
+    }
+
+    @Test
+    public void sameKey_sameInstance() {
+
+        final CCFAnimatorCache cache = new CCFAnimatorCache(2);
+
+        final CCFAnimator first = cache.hsv(COLORS);
+        assertSame(first, cache.hsv(COLORS.clone()));
+        assertEquals(1, cache.hitCount());
+
+        // a different mode is a different key
+        assertNotSame(first, cache.rgb(COLORS));
+
+        // least recently used is evicted
+        cache.argb(COLORS);
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.size());
+        assertNotSame(first, cache.hsv(COLORS));
+    }
+
+    private static void assertSameColors(CCFAnimator expected, CCFAnimator actual) {
+        final int[] expectedColors = new int[1001];
+        final int[] actualColors = new int[1001];
+        for (int i = 0; i < expectedColors.length; i++) {
+            final float fraction = i / 1000.F;
+            expectedColors[i] = expected.getColor(fraction);
+            actualColors[i] = actual.getColor(fraction);
+        }
+        assertColors("cached", expectedColors, actualColors);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// a linear tween must follow `argb` animator (channels are rounded from floats, so within 1)
+// and every animation must end exactly at its target
+public class CCFColorAnimatorTest {
+
+    @Test
+    public void tween_sameAsArgbAnimator() {
+
+        final Random random = new Random(25L);
+
+        for (int t = 0; t < 100; t++) {
+
+            final int from = random.nextInt();
+            // different alpha, equal alpha is opaque for `argb` animator
+            final int to = (random.nextInt() & 0x00FFFFFF) | (((from >>> 24) ^ 0x80) << 24);
+            final CCFAnimator argb = CCFAnimator.argb(from, to);
+
+            final Recorder recorder = new Recorder();
+            final CCFColorAnimator animator = new CCFColorAnimator(from, recorder, false)
+                    .setDuration(160L);
+
+            final long start = FrameTicker.now();
+            animator.animateTo(to);
+            assertTrue(animator.isRunning());
+
+            for (long elapsed = 0L; elapsed < 160L; elapsed += 16L) {
+                animator.onFrame(start + elapsed);
+                assertWithin("elapsed: " + elapsed, argb.getColor(elapsed / 160.F), animator.getColor(), 1);
+            }
+
+            animator.onFrame(start + 160L);
+            assertFalse(animator.isRunning());
+            assertColor("end", to, animator.getColor());
+            assertColor("delivered end", to, recorder.last());
+            recorder.assertDistinct();
+        }
+    }
+
+    @Test
+    public void spring_endsAtTarget() {
+
+        final Recorder recorder = new Recorder();
+        final CCFColorAnimator animator = new CCFColorAnimator(0xFF000000, recorder, false)
+                .setMode(CCFColorAnimator.MODE_SPRING)
+                .setDuration(300L);
+
+        final long start = FrameTicker.now();
+        animator.animateTo(0x80FF8040);
+
+        long time = start;
+        int frames = 0;
+        while (animator.isRunning() && frames < 1000) {
+            time += 16L;
+            animator.onFrame(time);
+            frames += 1;
+            // retarget mid-flight keeps running
+            if (frames == 5) {
+                animator.animateTo(0xFF20FF20);
+            }
+        }
+
+        assertFalse(animator.isRunning());
+        assertColor("end", 0xFF20FF20, animator.getColor());
+        assertColor("delivered end", 0xFF20FF20, recorder.last());
+        recorder.assertDistinct();
+    }
+
+    @Test
+    public void reverse_returnsToPrevious() {
+
+        final Recorder recorder = new Recorder();
+        final CCFColorAnimator animator = new CCFColorAnimator(0xFF000000, recorder, false)
+                .setDuration(100L);
+
+        final long start = FrameTicker.now();
+        animator.animateTo(0xFFFFFFFF);
+        animator.onFrame(start + 50L);
+        assertNotEquals(0xFF000000, animator.getColor());
+
+        animator.reverse();
+        assertColor("target", 0xFF000000, animator.getTargetColor());
+
+        // reversed mid-flight takes as long as it was running
+        final long reversed = FrameTicker.now();
+        animator.onFrame(reversed + 50L);
+        assertFalse(animator.isRunning());
+        assertColor("end", 0xFF000000, animator.getColor());
+        recorder.assertDistinct();
+    }
+
+    @Test
+    public void snapTo_deliversOnce() {
+
+        final Recorder recorder = new Recorder();
+        final CCFColorAnimator animator = new CCFColorAnimator(0xFF000000, recorder, false);
+
+        animator.snapTo(0xFF000000);
+        assertEquals(0, recorder.mColors.size());
+
+        animator.snapTo(0xFF123456);
+        animator.snapTo(0xFF123456);
+        assertEquals(1, recorder.mColors.size());
+        assertColor("snapped", 0xFF123456, animator.getColor());
+    }
+
+    private static class Recorder implements CCFAnimator.OnNewColorListener {
+
+        final List<Integer> mColors = new ArrayList<>();
+
+        @Override
+        public void onNewColor(int color) {
+            mColors.add(color);
+        }
+
+        int last() {
+            return mColors.get(mColors.size() - 1);
+        }
+
+        void assertDistinct() {
+            for (int i = 1; i < mColors.size(); i++) {
+                assertNotEquals("index: " + i, mColors.get(i - 1), mColors.get(i));
+            }
+        }
+    }
+}
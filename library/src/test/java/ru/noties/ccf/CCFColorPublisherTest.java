@@ -0,0 +1,110 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// a consumer must receive exactly `getColor` of a published fraction, the latest one only
+public class CCFColorPublisherTest {
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            CCFAnimator.argb(0x00FF0000, 0xFF00FF00),
+            CCFAnimator.hsv(0xFF00FF00, 0x800000FF)
+    );
+
+    @Test
+    public void published_sameAsGetColor() {
+
+        final CCFColorPublisher publisher = new CCFColorPublisher();
+        final Last last = new Last();
+
+        assertFalse(publisher.isPublished());
+        assertFalse(publisher.consume(last));
+        assertColor("default", 0x12345678, publisher.peek(0x12345678));
+
+        for (int i = 0; i <= 100; i++) {
+            final float fraction = i / 100.F;
+            final int expected = ANIMATOR.getColor(fraction);
+
+            assertEquals(i + 1, publisher.publish(ANIMATOR, fraction));
+            assertTrue(publisher.hasNew());
+            assertColor("peek: " + fraction, expected, publisher.peek(0));
+
+            assertTrue(publisher.consume(last));
+            assertColor("consumed: " + fraction, expected, last.mColor);
+            assertFalse(publisher.hasNew());
+            assertFalse(publisher.consume(last));
+        }
+    }
+
+    @Test
+    public void notConsumed_latestDelivered() {
+
+        final CCFColorPublisher publisher = new CCFColorPublisher();
+        final Last last = new Last();
+
+        publisher.publish(ANIMATOR, .1F);
+        publisher.publish(ANIMATOR, .2F);
+        publisher.publish(ANIMATOR, .3F);
+
+        assertTrue(publisher.consume(last));
+        assertColor("latest", ANIMATOR.getColor(.3F), last.mColor);
+        assertEquals(1, last.mCount);
+
+        // same color published again is still new
+        publisher.publish(ANIMATOR, .3F);
+        assertTrue(publisher.consume(last));
+        assertEquals(2, last.mCount);
+    }
+
+    @Test
+    public void concurrentProducer_onlyEvaluatedColors() throws InterruptedException {
+
+        final int count = 100000;
+        final Set<Integer> colors = new HashSet<>();
+        for (int i = 0; i <= count; i++) {
+            colors.add(ANIMATOR.getColor((float) i / count));
+        }
+
+        final CCFColorPublisher publisher = new CCFColorPublisher();
+        final Thread producer = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i <= count; i++) {
+                    publisher.publish(ANIMATOR, (float) i / count);
+                }
+            }
+        };
+
+        final Last last = new Last();
+        producer.start();
+        while (producer.isAlive()) {
+            if (publisher.consume(last)) {
+                assertTrue("torn color: " + Integer.toHexString(last.mColor), colors.contains(last.mColor));
+            }
+        }
+        producer.join();
+        publisher.consume(last);
+
+        assertColor("final", ANIMATOR.getColor(1.F), last.mColor);
+        assertEquals(count + 1, publisher.getSequence());
+    }
+
+    private static class Last implements CCFAnimator.OnNewColorListener {
+
+        int mColor;
+        int mCount;
+
+        @Override
+        public void onNewColor(int color) {
+            mColor = color;
+            mCount += 1;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.noties.ccf;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// a target must deliver exactly `getColor` of its (clamped) interpolated fraction on each frame
+public class CCFEngineTest {
+
+    // goes below 0 and above 1, as anticipate-overshoot interpolators do
+    private static final TimeInterpolator OVERSHOOT = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return input * 1.6F - .3F;
+        }
+    };
+
+    @Test
+    public void frames_sameAsGetColor() {
+
+        final CCFAnimator[] animators = {
+                CCFAnimator.rgb(0xFF000000, 0xFFFFFFFF),
+                CCFAnimator.hsv(new int[] { 0xFFFF0000, 0xFF00FF00, 0xFF0000FF }),
+                CCFAnimator.concat(new float[] { .0F, .4F, 1.F }, CCFAnimator.argb(0x10FF0000, 0xFF00FF00), CCFAnimator.linearRgb(0xFF00FF00, 0xFF0000FF))
+        };
+        final TimeInterpolator[] interpolators = { null, OVERSHOOT };
+
+        final CCFEngine engine = new CCFEngine(1, false);
+
+        final List<Recorder> recorders = new ArrayList<>();
+        final long start = 1000L;
+        final long duration = 160L;
+
+        for (CCFAnimator animator : animators) {
+            for (TimeInterpolator interpolator : interpolators) {
+                final Recorder recorder = new Recorder(animator, interpolator);
+                recorders.add(recorder);
+                engine.add(animator, recorder, start, duration, interpolator);
+            }
+        }
+
+        assertEquals(recorders.size(), engine.size());
+
+        // before start nothing is delivered
+        engine.onFrame(start - 1L);
+
+        for (long time = start; time <= start + duration + 16L; time += 16L) {
+            engine.onFrame(time);
+        }
+
+        assertEquals(0, engine.size());
+
+        for (Recorder recorder : recorders) {
+            assertEquals(11, recorder.mColors.size());
+            for (int frame = 0; frame < recorder.mColors.size(); frame++) {
+                final long elapsed = Math.min(duration, frame * 16L);
+                final float fraction = (float) elapsed / duration;
+                final float interpolated = recorder.mInterpolator != null
+                        ? clamp(recorder.mInterpolator.getInterpolation(fraction))
+                        : fraction;
+                assertColor("frame: " + frame, recorder.mAnimator.getColor(interpolated), recorder.mColors.get(frame));
+            }
+            // the last one is the exact end color, even with an interpolator that ends past 1
+            assertColor("end", recorder.mAnimator.getColor(1.F), recorder.mColors.get(recorder.mColors.size() - 1));
+        }
+    }
+
+    @Test
+    public void remove_stopsDelivery() {
+
+        final CCFAnimator animator = CCFAnimator.rgb(0xFF000000, 0xFFFFFFFF);
+        final Recorder recorder = new Recorder(animator, null);
+
+        final CCFEngine engine = new CCFEngine(4, false);
+        final int id = engine.add(animator, recorder, 0L, 100L, null);
+
+        engine.onFrame(10L);
+        assertEquals(true, engine.remove(id));
+        engine.onFrame(20L);
+
+        assertEquals(1, recorder.mColors.size());
+        assertEquals(false, engine.remove(id));
+        assertEquals(0, engine.size());
+    }
+
+    private static float clamp(float fraction) {
+        return fraction < .0F ? .0F : (fraction > 1.F ? 1.F : fraction);
+    }
+
+    private static class Recorder implements CCFAnimator.OnNewColorListener {
+
+        final CCFAnimator mAnimator;
+        final TimeInterpolator mInterpolator;
+        final List<Integer> mColors = new ArrayList<>();
+
+        Recorder(CCFAnimator animator, TimeInterpolator interpolator) {
+            mAnimator = animator;
+            mInterpolator = interpolator;
+        }
+
+        @Override
+        public void onNewColor(int color) {
+            mColors.add(color);
+        }
+    }
+}
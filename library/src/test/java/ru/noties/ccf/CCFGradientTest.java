@@ -0,0 +1,92 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// pixel `i` of a gradient line of `n` pixels must be exactly `getColor(i * (1.F / (n - 1)))`
+public class CCFGradientTest {
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            new float[] { .0F, .25F, 1.F },
+            CCFAnimator.argb(0xFFFF0000, 0x4000FF00),
+            CCFAnimator.concat(CCFAnimator.hsv(new int[] { 0xFF00FF00, 0xFF0000FF, 0xFFFF00FF }), CCFAnimator.rgb(0xFF000000, 0xFFFFFFFF))
+    );
+
+    private static final int[] SIZES = { 1, 2, 3, 49, 301, 1001 };
+
+    @Test
+    public void fillRect_sameAsGetColor() {
+        for (int size : SIZES) {
+
+            final int other = 3;
+            final int stride = size + 2;
+
+            final int[] horizontal = new int[stride * other];
+            CCFGradient.fillRect(ANIMATOR, horizontal, 0, stride, size, other, CCFGradient.HORIZONTAL);
+            for (int y = 0; y < other; y++) {
+                for (int x = 0; x < size; x++) {
+                    assertColor("horizontal, x: " + x + ", y: " + y, expected(x, size), horizontal[y * stride + x]);
+                }
+            }
+
+            final int[] vertical = new int[(other + 1) * size];
+            CCFGradient.fillRect(ANIMATOR, vertical, 0, other + 1, other, size, CCFGradient.VERTICAL);
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < other; x++) {
+                    assertColor("vertical, x: " + x + ", y: " + y, expected(y, size), vertical[y * (other + 1) + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fillBuffer_arrayAndDirect_sameAsGetColor() {
+        for (int size : SIZES) {
+
+            final int other = 4;
+            final int[] scratch = new int[Math.max(size, other)];
+
+            for (int orientation : new int[] { CCFGradient.HORIZONTAL, CCFGradient.VERTICAL }) {
+
+                final int width = orientation == CCFGradient.HORIZONTAL ? size : other;
+                final int height = orientation == CCFGradient.HORIZONTAL ? other : size;
+
+                final IntBuffer heap = IntBuffer.allocate(width * height + 1);
+                heap.position(1);
+                CCFGradient.fill(ANIMATOR, heap, width, height, orientation);
+                assertEquals(width * height + 1, heap.position());
+
+                final IntBuffer direct = ByteBuffer.allocateDirect(width * height * 4).asIntBuffer();
+                CCFGradient.fill(ANIMATOR, direct, width, height, orientation, scratch);
+                assertEquals(width * height, direct.position());
+
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        final int color = orientation == CCFGradient.HORIZONTAL
+                                ? expected(x, width)
+                                : expected(y, height);
+                        final String message = "orientation: " + orientation + ", x: " + x + ", y: " + y;
+                        assertColor(message, color, heap.get(1 + y * width + x));
+                        assertColor(message, color, direct.get(y * width + x));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fillBuffer_smallScratch_throws() {
+        final IntBuffer direct = ByteBuffer.allocateDirect(10 * 2 * 4).asIntBuffer();
+        CCFGradient.fill(ANIMATOR, direct, 10, 2, CCFGradient.HORIZONTAL, new int[9]);
+    }
+
+    private static int expected(int index, int count) {
+        final float step = count > 1 ? 1.F / (count - 1) : .0F;
+        return ANIMATOR.getColor(step * index);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertColors;
+
+public class CCFImageWriterTest {
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            CCFAnimator.argb(0xFFFF0000, 0x4000FF00),
+            CCFAnimator.hsv(new int[] { 0xFF00FF00, 0xFF0000FF, 0xFFFF00FF })
+    );
+
+    @Test
+    public void raw_horizontal_sameAsGetColors() throws IOException {
+
+        final int width = 301;
+        final int height = 7;
+
+        final int[] pixels = raw(new CCFImageWriter(ANIMATOR, width, height).angle(.0F));
+
+        final int[] row = new int[width];
+        ANIMATOR.getColors(row);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertColor("x: " + x + ", y: " + y, row[x], pixels[y * width + x]);
+            }
+        }
+    }
+
+    @Test
+    public void raw_horizontalAndVertical_sameAsGradient() throws IOException {
+
+        // sizes whose `1 / (size - 1)` rounds differently in float and in double
+        for (int size : new int[] { 2, 3, 7, 49, 301, 1001, 4097 }) {
+
+            final int other = 5;
+
+            final int[] horizontal = new int[size * other];
+            CCFGradient.fillRect(ANIMATOR, horizontal, 0, size, size, other, CCFGradient.HORIZONTAL);
+            assertColors("horizontal, size: " + size, horizontal, raw(new CCFImageWriter(ANIMATOR, size, other).angle(.0F)));
+
+            final int[] vertical = new int[other * size];
+            CCFGradient.fillRect(ANIMATOR, vertical, 0, other, other, size, CCFGradient.VERTICAL);
+            assertColors("vertical, size: " + size, vertical, raw(new CCFImageWriter(ANIMATOR, other, size).angle(90.F)));
+        }
+    }
+
+    @Test
+    public void png_validChunks() throws IOException {
+
+        final byte[] png = png(new CCFImageWriter(ANIMATOR, 1000, 100).angle(30.F));
+
+        final ByteBuffer buffer = ByteBuffer.wrap(png);
+
+        final byte[] signature = new byte[PNG_SIGNATURE.length];
+        buffer.get(signature);
+        assertArrayEquals(PNG_SIGNATURE, signature);
+
+        String first = null;
+        String last = null;
+
+        while (buffer.hasRemaining()) {
+
+            final int length = buffer.getInt();
+            assertTrue(length >= 0 && length <= buffer.remaining() - 8);
+
+            final byte[] typeAndData = new byte[4 + length];
+            buffer.get(typeAndData);
+
+            final CRC32 crc = new CRC32();
+            crc.update(typeAndData);
+            assertEquals((int) crc.getValue(), buffer.getInt());
+
+            final String type = new String(typeAndData, 0, 4, "US-ASCII");
+            if (first == null) {
+                first = type;
+                // width, height, bit depth 8, color type RGBA
+                final ByteBuffer header = ByteBuffer.wrap(typeAndData, 4, length);
+                assertEquals(1000, header.getInt());
+                assertEquals(100, header.getInt());
+                assertEquals(8, header.get());
+                assertEquals(6, header.get());
+            }
+            last = type;
+        }
+
+        assertEquals("IHDR", first);
+        assertEquals("IEND", last);
+    }
+
+    @Test
+    public void png_decodesToRawPixels() throws IOException {
+
+        for (float angle : new float[] { .0F, 90.F, 30.F, 225.F }) {
+
+            final int width = 257;
+            final int height = 33;
+
+            final int[] expected = raw(new CCFImageWriter(ANIMATOR, width, height).angle(angle));
+
+            final BufferedImage image = ImageIO.read(new ByteArrayInputStream(
+                    png(new CCFImageWriter(ANIMATOR, width, height).angle(angle))));
+            assertNotNull(image);
+            assertEquals(width, image.getWidth());
+            assertEquals(height, image.getHeight());
+
+            final int[] actual = image.getRGB(0, 0, width, height, null, 0, width);
+            assertColors("angle: " + angle, expected, actual);
+        }
+    }
+
+    private static int[] raw(CCFImageWriter writer) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.format(CCFImageWriter.FORMAT_RAW).write(outputStream);
+        final ByteBuffer buffer = ByteBuffer.wrap(outputStream.toByteArray());
+        final int[] pixels = new int[buffer.remaining() / 4];
+        buffer.asIntBuffer().get(pixels);
+        return pixels;
+    }
+
+    private static byte[] png(CCFImageWriter writer) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.format(CCFImageWriter.FORMAT_PNG).write(outputStream);
+        return outputStream.toByteArray();
+    }
+}
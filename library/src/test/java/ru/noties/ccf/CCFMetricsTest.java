@@ -0,0 +1,108 @@
+package ru.noties.ccf;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertColors;
+
+// instrumentation must not change evaluated colors and must count every evaluated color once
+public class CCFMetricsTest {
+
+    private static final CCFAnimator ANIMATOR = CCFAnimator.concat(
+            new float[] { .0F, .6F, 1.F },
+            CCFAnimator.argb(new int[] { 0x20FF0000, 0xFF00FF00, 0xFF0000FF }),
+            CCFAnimator.hsv(0xFF0000FF, 0xFFFFFF00)
+    );
+
+    private CCFMetrics.Counter mCounter;
+
+    @Before
+    public void before() {
+        mCounter = new CCFMetrics.Counter();
+        CCFAnimator.setMetrics(mCounter, Long.MAX_VALUE);
+    }
+
+    @After
+    public void after() {
+        CCFAnimator.setMetrics(null);
+    }
+
+    @Test
+    public void instrumented_sameAsGetColor() {
+
+        final CCFAnimator instrumented = CCFAnimator.instrument(ANIMATOR);
+
+        for (int i = 0; i <= 1000; i++) {
+            final float fraction = i / 1000.F;
+            assertColor("fraction: " + fraction, ANIMATOR.getColor(fraction), instrumented.getColor(fraction));
+            assertColor("fixed: " + fraction, ANIMATOR.getColorFixed(i * 65), instrumented.getColorFixed(i * 65));
+        }
+        assertEquals(2002, mCounter.getEvaluationCount());
+
+        final int[] expected = new int[777];
+        final int[] actual = new int[777];
+        ANIMATOR.getColors(expected);
+        instrumented.getColors(actual);
+        assertColors("sweep", expected, actual);
+        assertEquals(2002 + 777, mCounter.getEvaluationCount());
+
+        final float[] fractions = new float[333];
+        for (int i = 0; i < fractions.length; i++) {
+            fractions[i] = (i * 7 % 333) / 332.F;
+        }
+        final int[] expectedFractions = new int[fractions.length];
+        final int[] actualFractions = new int[fractions.length];
+        ANIMATOR.getColors(fractions, expectedFractions);
+        instrumented.getColors(fractions, actualFractions);
+        assertColors("fractions", expectedFractions, actualFractions);
+        assertEquals(2002 + 777 + 333, mCounter.getEvaluationCount());
+
+        // instrumented segment of a concat reports its runs
+        final CCFAnimator nested = CCFAnimator.concat(CCFAnimator.instrument(CCFAnimator.rgb(0xFF000000, 0xFFFFFFFF)), ANIMATOR);
+        final int[] nestedColors = new int[100];
+        nested.getColors(nestedColors);
+        assertEquals(2002 + 777 + 333 + 50, mCounter.getEvaluationCount());
+    }
+
+    @Test
+    public void engine_reportsEvaluatedAndEmitted() {
+
+        final int[] last = new int[1];
+        final CCFEngine engine = new CCFEngine(4, false);
+        engine.add(ANIMATOR, new CCFAnimator.OnNewColorListener() {
+            @Override
+            public void onNewColor(int color) {
+                last[0] = color;
+            }
+        }, 0L, 100L, null);
+
+        for (long time = 0L; time <= 100L; time += 10L) {
+            engine.onFrame(time);
+        }
+
+        assertEquals(11, mCounter.getEvaluationCount());
+        assertEquals(11, mCounter.getEmittedCount());
+        assertEquals(0, mCounter.getSlowFrameCount());
+        assertColor("end", ANIMATOR.getColor(1.F), last[0]);
+    }
+
+    @Test
+    public void distinct_reportsEmittedAndSuppressed() {
+
+        final DistinctColorListener listener = new DistinctColorListener(new CCFAnimator.OnNewColorListener() {
+            @Override
+            public void onNewColor(int color) {
+            }
+        });
+
+        listener.onNewColor(0xFF000000);
+        listener.onNewColor(0xFF000000);
+        listener.onNewColor(0xFF000001);
+
+        assertEquals(2, mCounter.getEmittedCount());
+        assertEquals(1, mCounter.getSuppressedCount());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// each target must be evaluated exactly as an animator of its own colors
+public class CCFMultiAnimatorTest {
+
+    @Test
+    public void allModes_sameAsAnimator() {
+
+        final Random random = new Random(20L);
+
+        for (int mode = 0; mode < 3; mode++) {
+            for (int t = 0; t < 20; t++) {
+
+                final int size = 1 + random.nextInt(6);
+                final int[][] states = new int[2 + random.nextInt(6)][];
+                for (int s = 0; s < states.length; s++) {
+                    states[s] = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        states[s][i] = random.nextInt();
+                        // equal alpha of a target in adjacent states is evaluated differently
+                        if (s > 0 && random.nextBoolean()) {
+                            states[s][i] = (states[s - 1][i] & 0xFF000000) | (states[s][i] & 0x00FFFFFF);
+                        }
+                    }
+                }
+
+                final CCFMultiAnimator multi = multi(mode, states);
+
+                final CCFAnimator[] animators = new CCFAnimator[size];
+                for (int i = 0; i < size; i++) {
+                    final int[] colors = new int[states.length];
+                    for (int s = 0; s < states.length; s++) {
+                        colors[s] = states[s][i];
+                    }
+                    animators[i] = animator(mode, colors);
+                }
+
+                final int[] out = new int[size + 1];
+                for (int f = 0; f <= 500; f++) {
+                    final float fraction = f / 500.F;
+                    multi.getColors(fraction, out, 1);
+                    for (int i = 0; i < size; i++) {
+                        assertColor("mode: " + mode + ", fraction: " + fraction + ", target: " + i,
+                                animators[i].getColor(fraction), out[i + 1]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equalAlpha_opaqueAsArgbAnimator() {
+        final CCFMultiAnimator multi = CCFMultiAnimator.argb(new int[] { 0x80808000 }, new int[] { 0x80008080 });
+        final int[] out = new int[1];
+        multi.getColors(.5F, out);
+        assertColor("middle", 0xFF408040, out[0]);
+    }
+
+    private static CCFMultiAnimator multi(int mode, int[][] states) {
+        switch (mode) {
+            case 0:
+                return CCFMultiAnimator.rgb(states);
+            case 1:
+                return CCFMultiAnimator.argb(states);
+            default:
+                return CCFMultiAnimator.hsv(states);
+        }
+    }
+
+    private static CCFAnimator animator(int mode, int[] colors) {
+        switch (mode) {
+            case 0:
+                return CCFAnimator.rgb(colors);
+            case 1:
+                return CCFAnimator.argb(colors);
+            default:
+                return CCFAnimator.hsv(colors);
+        }
+    }
+}
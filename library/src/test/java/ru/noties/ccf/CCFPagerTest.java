@@ -0,0 +1,85 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// a pager color must be exactly the color of a two-color animator between adjacent pages
+public class CCFPagerTest {
+
+    @Test
+    public void allModes_sameAsAnimator() {
+
+        final Random random = new Random(18L);
+
+        for (int mode = CCFPager.MODE_RGB; mode <= CCFPager.MODE_HSV; mode++) {
+            for (int t = 0; t < 20; t++) {
+
+                final int[] colors = colors(random, 1 + random.nextInt(10));
+                final CCFPager pager = new CCFPager(mode, colors);
+                final int last = colors.length - 1;
+
+                for (int position = -2; position <= last + 1; position++) {
+                    for (int i = 0; i <= 100; i++) {
+
+                        final float offset = i / 100.F;
+
+                        final int from;
+                        final int to;
+                        final float fraction;
+                        if (position < 0) {
+                            from = 0;
+                            to = Math.min(1, last);
+                            fraction = .0F;
+                        } else if (position >= last) {
+                            from = Math.max(0, last - 1);
+                            to = last;
+                            fraction = 1.F;
+                        } else {
+                            from = position;
+                            to = position + 1;
+                            fraction = offset;
+                        }
+
+                        final int expected = animator(mode, colors[from], colors[to]).getColor(fraction);
+                        assertColor("mode: " + mode + ", position: " + position + ", offset: " + offset,
+                                expected, pager.getColor(position, offset));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equalAlpha_opaqueAsArgbAnimator() {
+        final CCFPager pager = new CCFPager(CCFPager.MODE_ARGB, 0x80808000, 0x80008080);
+        assertColor("start", 0xFF808000, pager.getColor(0, .0F));
+        assertColor("middle", 0xFF408040, pager.getColor(0, .5F));
+        assertColor("end", 0xFF008080, pager.getColor(1, .0F));
+    }
+
+    static CCFAnimator animator(int mode, int from, int to) {
+        switch (mode) {
+            case CCFPager.MODE_RGB:
+                return CCFAnimator.rgb(from, to);
+            case CCFPager.MODE_ARGB:
+                return CCFAnimator.argb(from, to);
+            default:
+                return CCFAnimator.hsv(from, to);
+        }
+    }
+
+    // some colors share alpha with a neighbour, as equal alpha is evaluated differently
+    static int[] colors(Random random, int count) {
+        final int[] colors = new int[count];
+        for (int i = 0; i < count; i++) {
+            colors[i] = random.nextInt();
+            if (i > 0 && random.nextBoolean()) {
+                colors[i] = (colors[i - 1] & 0xFF000000) | (colors[i] & 0x00FFFFFF);
+            }
+        }
+        return colors;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.noties.ccf;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static ru.noties.ccf.TestUtils.assertColors;
+
+// animator decoded from a palette must be identical to the one created by factory methods
+public class CCFPaletteTest {
+
+    private static final int[] COLORS = { 0xFFFF9800, 0x80E91E63, 0xFF3F51B5, 0x00000000 };
+    private static final float[] POSITIONS = { .0F, .2F, .2F, 1.F };
+
+    // non-ASCII name (UTF-8 encoded in the file)
+    private static final String SUNSET = "\u0437\u0430\u043a\u0430\u0442";
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip_stream() throws IOException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer().write(outputStream);
+
+        check(CCFPalette.wrap(ByteBuffer.wrap(outputStream.toByteArray())));
+    }
+
+    @Test
+    public void roundTrip_file() throws IOException {
+
+        final File file = mFolder.newFile("palette.ccfp");
+        writer().write(file);
+
+        check(CCFPalette.open(file));
+    }
+
+    private static CCFPaletteWriter writer() {
+        return new CCFPaletteWriter()
+                .add("rgb", CCFPaletteWriter.Definition.rgb(COLORS))
+                .add("argb", CCFPaletteWriter.Definition.argb(COLORS, POSITIONS))
+                .add("hsv", CCFPaletteWriter.Definition.hsv(COLORS))
+                .add("hsv alpha", CCFPaletteWriter.Definition.hsv(COLORS[0], COLORS[2], 0x20, 0xFF))
+                .add("linear", CCFPaletteWriter.Definition.linearArgb(COLORS))
+                .add(SUNSET, CCFPaletteWriter.Definition.concat(
+                        new float[] { .0F, .6F, 1.F },
+                        CCFPaletteWriter.Definition.alpha(COLORS[1], 0x10),
+                        CCFPaletteWriter.Definition.concat(
+                                CCFPaletteWriter.Definition.hsv(COLORS, POSITIONS),
+                                CCFPaletteWriter.Definition.linearRgb(COLORS[2], COLORS[3])
+                        )
+                ));
+    }
+
+    private static void check(CCFPalette palette) {
+
+        assertEquals(6, palette.size());
+        assertNull(palette.get("missing"));
+
+        check(CCFAnimator.rgb(COLORS), palette.get("rgb"));
+        check(CCFAnimator.argb(COLORS, POSITIONS), palette.get("argb"));
+        check(CCFAnimator.hsv(COLORS), palette.get("hsv"));
+        check(CCFAnimator.hsv(COLORS[0], COLORS[2], 0x20, 0xFF), palette.get("hsv alpha"));
+        check(CCFAnimator.linearArgb(COLORS), palette.get("linear"));
+        check(
+                CCFAnimator.concat(
+                        new float[] { .0F, .6F, 1.F },
+                        CCFAnimator.alpha(COLORS[1], 0x10),
+                        CCFAnimator.concat(
+                                CCFAnimator.hsv(COLORS, POSITIONS),
+                                CCFAnimator.linearRgb(COLORS[2], COLORS[3])
+                        )
+                ),
+                palette.get(SUNSET)
+        );
+    }
+
+    private static void check(CCFAnimator expected, CCFAnimator actual) {
+
+        final int[] expectedColors = new int[1001];
+        expected.getColors(expectedColors);
+
+        final int[] actualColors = new int[expectedColors.length];
+        actual.getColors(actualColors);
+
+        assertColors("palette", expectedColors, actualColors);
+    }
+}
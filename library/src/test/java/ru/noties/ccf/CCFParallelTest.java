@@ -0,0 +1,113 @@
+package ru.noties.ccf;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertTrue;
+import static ru.noties.ccf.TestUtils.assertColors;
+
+// parallel evaluation must not depend on how output is split
+public class CCFParallelTest {
+
+    private static ForkJoinPool sPool;
+
+    @BeforeClass
+    public static void beforeClass() {
+        sPool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        sPool.shutdown();
+    }
+
+    @Test
+    public void sweep_sameAsSerial() {
+        for (CCFAnimator animator : animators()) {
+            for (int count : new int[] { 5000, 100003, 999999 }) {
+                for (int threshold : new int[] { 7, 1000, CCFParallel.DEFAULT_THRESHOLD }) {
+
+                    final int[] serial = new int[count];
+                    animator.getColors(serial);
+
+                    final int[] parallel = new int[count];
+                    CCFParallel.getColors(animator, parallel, 0, count, sPool, threshold);
+
+                    assertColors("count: " + count + ", threshold: " + threshold, serial, parallel);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fractions_sameAsSerial() {
+
+        final Random random = new Random(3L);
+        final float[] fractions = new float[100003];
+        for (int i = 0; i < fractions.length; i++) {
+            fractions[i] = random.nextFloat();
+        }
+
+        for (CCFAnimator animator : animators()) {
+
+            final int[] serial = new int[fractions.length];
+            animator.getColors(fractions, serial);
+
+            final int[] parallel = new int[fractions.length];
+            CCFParallel.getColors(animator, fractions, 0, parallel, 0, fractions.length, sPool, 1000);
+
+            assertColors("fractions", serial, parallel);
+        }
+    }
+
+    @Test
+    public void sharedPool_sameAsSerial() {
+
+        // on a plain JVM `ForkJoinPool` is always present, so overloads without a pool must use the shared one
+        assertTrue(CCFParallel.isPoolAvailable());
+
+        final Random random = new Random(8L);
+        final float[] fractions = new float[CCFParallel.DEFAULT_THRESHOLD * 3 + 17];
+        for (int i = 0; i < fractions.length; i++) {
+            fractions[i] = random.nextFloat();
+        }
+
+        for (CCFAnimator animator : animators()) {
+
+            final int[] serial = new int[fractions.length];
+            final int[] parallel = new int[fractions.length];
+
+            animator.getColors(serial);
+            CCFParallel.getColors(animator, parallel);
+            assertColors("sweep", serial, parallel);
+
+            animator.getColors(fractions, serial);
+            CCFParallel.getColors(animator, fractions, parallel);
+            assertColors("fractions", serial, parallel);
+        }
+    }
+
+    private static CCFAnimator[] animators() {
+        final Random random = new Random(4L);
+        final int[] colors = new int[40];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = random.nextInt();
+        }
+        return new CCFAnimator[] {
+                CCFAnimator.rgb(colors),
+                CCFAnimator.argb(colors[0], colors[1]),
+                CCFAnimator.linearRgb(colors),
+                CCFAnimator.hsv(colors),
+                CCFAnimator.concat(
+                        new float[] { .0F, .3F, 1.F },
+                        CCFAnimator.hsv(colors[2], colors[3]),
+                        CCFAnimator.argb(colors)
+                ),
+                CCFAnimator.hsv(colors).compile()
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// simplified curve must stay within tolerance of `getColor` of the original at every sampled fraction
+public class CCFSimplifierTest {
+
+    @Test
+    public void withinTolerance_ofGetColor() {
+
+        final Random random = new Random(22L);
+
+        for (int mode = CCFSimplifier.MODE_ARGB; mode <= CCFSimplifier.MODE_HSV; mode++) {
+            for (int t = 0; t < 10; t++) {
+
+                // near-collinear stops: a few key colors with many stops between them
+                final int[] keys = { random.nextInt() | 0xFF000000, random.nextInt() | 0xFF000000, random.nextInt() | 0xFF000000 };
+                final CCFAnimator keyAnimator = CCFAnimator.rgb(keys);
+                final int[] colors = new int[100];
+                for (int i = 0; i < colors.length; i++) {
+                    colors[i] = keyAnimator.getColor(i / 99.F);
+                }
+
+                final float tolerance = 1 + random.nextInt(4);
+                final int resolution = 257;
+                final CCFSimplifier simplifier = new CCFSimplifier()
+                        .mode(mode)
+                        .tolerance(tolerance)
+                        .resolution(resolution);
+
+                final CCFAnimator original = mode == CCFSimplifier.MODE_HSV
+                        ? CCFAnimator.hsv(colors)
+                        : CCFAnimator.argb(colors);
+
+                final CCFSimplifier.Result fromStops = simplifier.simplify(colors);
+                final CCFSimplifier.Result fromCurve = simplifier.simplify(original);
+
+                assertTrue(fromStops.size() <= colors.length);
+                assertTrue(fromCurve.getMaxError() <= tolerance);
+
+                for (CCFSimplifier.Result result : new CCFSimplifier.Result[] { fromStops, fromCurve }) {
+
+                    final CCFAnimator simplified = result.toAnimator();
+
+                    // reported error is measured at the same fractions the curve was sampled at
+                    int maxError = 0;
+                    for (int i = 0; i < resolution; i++) {
+                        final float fraction = i / (float) (resolution - 1);
+                        maxError = Math.max(maxError, TestUtils.maxChannelDiff(original.getColor(fraction), simplified.getColor(fraction)));
+                    }
+                    assertEquals("mode: " + mode, maxError, result.getMaxError(), .0F);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+public class CompileTest {
+
+    @Test
+    public void flat_sameAsOriginal() {
+        final Random random = new Random(1L);
+        for (int i = 0; i < 50; i++) {
+            final int[] colors = colors(random, 2 + random.nextInt(30));
+            check(CCFAnimator.rgb(colors), 0);
+            check(CCFAnimator.argb(colors), 0);
+            check(CCFAnimator.linearArgb(colors), 0);
+            check(CCFAnimator.hsv(colors), 0);
+        }
+    }
+
+    @Test
+    public void nested_withinOne() {
+        final Random random = new Random(2L);
+        for (int i = 0; i < 50; i++) {
+            final CCFAnimator animator = CCFAnimator.concat(
+                    positions(random, 5),
+                    CCFAnimator.argb(colors(random, 5)),
+                    CCFAnimator.concat(CCFAnimator.hsv(colors(random, 4)), CCFAnimator.linearRgb(colors(random, 3))),
+                    CCFAnimator.hsv(colors(random, 3), positions(random, 3)),
+                    CCFAnimator.alpha(random.nextInt(), random.nextInt(256))
+            );
+            check(animator, 1);
+        }
+    }
+
+    @Test
+    public void delegates_sameAsOriginal() {
+        final CCFAnimator animator = CCFAnimator.concat(
+                CCFAnimator.rgb(0xFFFF0000, 0xFF00FF00).bake(64, true),
+                CCFAnimator.rgb(0xFF00FF00, 0xFF0000FF)
+        );
+        check(animator, 0);
+    }
+
+    private static void check(CCFAnimator animator, int tolerance) {
+
+        final CCFAnimator compiled = animator.compile();
+
+        final int count = 4097;
+        final float step = 1.F / (count - 1);
+        for (int i = 0; i < count; i++) {
+            final float fraction = step * i;
+            if (tolerance == 0) {
+                assertColor("fraction: " + fraction, animator.getColor(fraction), compiled.getColor(fraction));
+            } else {
+                assertWithin("fraction: " + fraction, animator.getColor(fraction), compiled.getColor(fraction), tolerance);
+            }
+        }
+    }
+
+    private static int[] colors(Random random, int count) {
+        final int[] colors = new int[count];
+        for (int i = 0; i < count; i++) {
+            colors[i] = random.nextInt();
+        }
+        return colors;
+    }
+
+    // `count` increasing positions from 0 to 1
+    private static float[] positions(Random random, int count) {
+        final float[] positions = new float[count];
+        for (int i = 1; i < count - 1; i++) {
+            positions[i] = positions[i - 1] + (1.F - positions[i - 1]) * random.nextFloat() * .5F;
+        }
+        positions[count - 1] = 1.F;
+        return positions;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// delivered colors must be exactly `getColor` of the animated fractions, with duplicates removed
+public class DistinctColorListenerTest {
+
+    @Test
+    public void exactDuplicates_sameAsGetColor() {
+
+        final CCFAnimator animator = CCFAnimator.concat(
+                CCFAnimator.rgb(0xFF102030, 0xFF112233),
+                CCFAnimator.hsv(0xFFFF0000, 0xFF0000FF)
+        );
+
+        final Recorder recorder = new Recorder();
+        final DistinctColorListener listener = new DistinctColorListener(recorder);
+
+        final List<Integer> expected = new ArrayList<>();
+        final int frames = 1000;
+        for (int i = 0; i <= frames; i++) {
+            final int color = animator.getColor((float) i / frames);
+            if (expected.isEmpty() || expected.get(expected.size() - 1) != color) {
+                expected.add(color);
+            }
+            listener.onNewColor(color);
+        }
+
+        assertEquals(expected, recorder.mColors);
+        assertEquals(expected.size(), listener.getDeliveredCount());
+        assertEquals(frames + 1 - expected.size(), listener.getSuppressedCount());
+    }
+
+    @Test
+    public void tolerance_withinTolerance_finalColorExact() {
+
+        final CCFAnimator animator = CCFAnimator.argb(new int[] { 0x80102030, 0xFF405060, 0x20FFFFFF });
+        final int tolerance = 4;
+
+        final Recorder recorder = new Recorder();
+        final DistinctColorListener listener = new DistinctColorListener(recorder, tolerance);
+
+        final int frames = 777;
+        for (int i = 0; i <= frames; i++) {
+            final int color = animator.getColor((float) i / frames);
+            listener.onNewColor(color);
+            // every frame is either delivered or close to the last delivered color
+            assertWithin("frame: " + i, color, recorder.last(), tolerance);
+        }
+
+        listener.flush();
+
+        assertColor("final", animator.getColor(1.F), recorder.last());
+        assertEquals(recorder.mColors.size(), listener.getDeliveredCount());
+    }
+
+    @Test
+    public void reset_deliversNextColor() {
+
+        final Recorder recorder = new Recorder();
+        final DistinctColorListener listener = new DistinctColorListener(recorder);
+
+        listener.onNewColor(0xFF000000);
+        listener.onNewColor(0xFF000000);
+        listener.reset();
+        listener.onNewColor(0xFF000000);
+
+        assertEquals(2, recorder.mColors.size());
+        assertEquals(1, listener.getSuppressedCount());
+    }
+
+    private static class Recorder implements CCFAnimator.OnNewColorListener {
+
+        final List<Integer> mColors = new ArrayList<>();
+
+        @Override
+        public void onNewColor(int color) {
+            mColors.add(color);
+        }
+
+        int last() {
+            return mColors.get(mColors.size() - 1);
+        }
+    }
+}
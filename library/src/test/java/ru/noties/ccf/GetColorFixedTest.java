@@ -0,0 +1,54 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// fixed-point evaluation must match `getColor(fraction / FRACTION_ONE)`, apart from rare `x.5` rounding cases
+public class GetColorFixedTest {
+
+    @Test
+    public void sameAsGetColor() {
+
+        final Random random = new Random(5L);
+
+        final int[] colors = new int[12];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = random.nextInt();
+        }
+
+        final CCFAnimator[] animators = {
+                CCFAnimator.rgb(colors[0], colors[1]),
+                CCFAnimator.argb(colors[2], colors[3]),
+                CCFAnimator.alpha(colors[4], 0x10),
+                CCFAnimator.argb(colors),
+                CCFAnimator.concat(CCFAnimator.rgb(colors), CCFAnimator.argb(colors[5], colors[6])),
+                CCFAnimator.argb(colors).bake(64, true),
+                CCFAnimator.hsv(colors),
+                CCFAnimator.linearRgb(colors)
+        };
+
+        for (CCFAnimator animator : animators) {
+
+            int mismatches = 0;
+
+            for (int fraction = 0; fraction <= CCFAnimator.FRACTION_ONE; fraction++) {
+                final int expected = animator.getColor(fraction / (float) CCFAnimator.FRACTION_ONE);
+                final int actual = animator.getColorFixed(fraction);
+                assertWithin("fraction: " + fraction, expected, actual, 1);
+                if (expected != actual) {
+                    mismatches += 1;
+                }
+            }
+
+            assertTrue("mismatches: " + mismatches, mismatches < (CCFAnimator.FRACTION_ONE >> 10));
+
+            assertColor("start", animator.getColor(.0F), animator.getColorFixed(0));
+            assertColor("end", animator.getColor(1.F), animator.getColorFixed(CCFAnimator.FRACTION_ONE));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// bulk evaluation must be identical to `getColor`
+public class GetColorsTest {
+
+    @Test
+    public void evenlySpaced_sameAsGetColor() {
+
+        final Random random = new Random(5L);
+
+        for (int i = 0; i < 100; i++) {
+
+            final CCFAnimator animator = randomAnimator(random, i);
+
+            final int count = 1 + random.nextInt(5000);
+            final int[] out = new int[count * 2];
+            animator.getColors(out, 1, count, 2);
+
+            final float step = count > 1 ? 1.F / (count - 1) : .0F;
+            for (int o = 0; o < count; o++) {
+                assertColor("count: " + count + ", index: " + o, animator.getColor(step * o), out[1 + o * 2]);
+            }
+        }
+    }
+
+    @Test
+    public void fractions_sameAsGetColor() {
+
+        final Random random = new Random(6L);
+
+        final float[] fractions = new float[10000];
+        final int[] out = new int[fractions.length];
+
+        for (int i = 0; i < 60; i++) {
+
+            final CCFAnimator animator = randomAnimator(random, i);
+
+            for (int f = 0; f < fractions.length; f++) {
+                fractions[f] = random.nextFloat();
+            }
+            // sorted fractions give long runs inside a single segment, random ones mostly give single samples
+            if (random.nextBoolean()) {
+                Arrays.sort(fractions);
+            }
+            fractions[0] = .0F;
+            fractions[fractions.length - 1] = 1.F;
+
+            animator.getColors(fractions, out);
+            for (int f = 0; f < fractions.length; f++) {
+                assertColor("fraction: " + fractions[f], animator.getColor(fractions[f]), out[f]);
+            }
+        }
+    }
+
+    // plain, concatenated, positioned and nested trees
+    private static CCFAnimator randomAnimator(Random random, int index) {
+
+        final int[] colors = new int[2 + random.nextInt(30)];
+        for (int c = 0; c < colors.length; c++) {
+            colors[c] = random.nextInt();
+        }
+
+        final float[] positions = new float[colors.length];
+        for (int p = 0; p < positions.length; p++) {
+            positions[p] = random.nextFloat();
+        }
+        Arrays.sort(positions);
+        positions[0] = .0F;
+        positions[positions.length - 1] = 1.F;
+        if (positions.length > 3) {
+            // zero width segment
+            positions[2] = positions[1];
+        }
+
+        switch (index % 6) {
+            case 0:
+                return CCFAnimator.rgb(colors[0], colors[1]);
+            case 1:
+                return CCFAnimator.rgb(colors);
+            case 2:
+                return CCFAnimator.hsv(colors);
+            case 3:
+                return CCFAnimator.argb(colors, positions);
+            case 4:
+                return CCFAnimator.hsv(colors, positions);
+            default:
+                return CCFAnimator.concat(
+                        new float[] { .0F, random.nextFloat() * .5F, .5F, 1.F },
+                        CCFAnimator.rgb(colors),
+                        CCFAnimator.concat(CCFAnimator.hsv(colors), CCFAnimator.linearArgb(colors[0], colors[1])),
+                        CCFAnimator.argb(colors, positions)
+                );
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.fail;
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// `CCFAnimator` converts colors without `android.graphics.Color`, results must be bit-exact with it
+public class HSVConversionTest {
+
+    @Test
+    public void colorToHSV_allColors_sameAsFramework() {
+
+        final float[] expected = new float[3];
+        final float[] actual = new float[3];
+
+        for (int color = 0; color <= 0xFFFFFF; color++) {
+            SkiaColor.colorToHSV(color, expected);
+            CCFAnimator.colorToHSV(color, actual);
+            for (int i = 0; i < 3; i++) {
+                if (Float.floatToIntBits(expected[i]) != Float.floatToIntBits(actual[i])) {
+                    fail("color: " + Integer.toHexString(color) + ", component: " + i
+                            + ", expected: " + expected[i] + ", actual: " + actual[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void hsvToColor_allColors_sameAsFrameworkAndRoundTrips() {
+
+        final float[] hsv = new float[3];
+
+        for (int color = 0; color <= 0xFFFFFF; color++) {
+            SkiaColor.colorToHSV(color, hsv);
+            final int actual = CCFAnimator.hsvToColor(0x7F, hsv);
+            assertColor("framework", SkiaColor.hsvToColor(0x7F, hsv), actual);
+            assertColor("round trip", 0x7F000000 | color, actual);
+        }
+    }
+
+    @Test
+    public void hsvToColor_outOfRange_sameAsFramework() {
+
+        final Random random = new Random(42L);
+        final float[] hsv = new float[3];
+
+        for (int i = 0; i < 1000000; i++) {
+            hsv[0] = random.nextFloat() * 400.F - 20.F;
+            hsv[1] = random.nextFloat() * 1.2F - .1F;
+            hsv[2] = random.nextFloat() * 1.2F - .1F;
+            assertColor("hsv: " + i, SkiaColor.hsvToColor(0xFF, hsv), CCFAnimator.hsvToColor(0xFF, hsv));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+
+// contiguous (kernel) and strided bulk evaluation must be identical to `getColor`,
+// repeated enough for the kernels to be JIT compiled (and vectorized where supported)
+public class KernelsTest {
+
+    @Test
+    public void rgb_sameAsGetColor() {
+        check(new Random(24L), false);
+    }
+
+    @Test
+    public void argb_sameAsGetColor() {
+        check(new Random(25L), true);
+    }
+
+    private static void check(Random random, boolean argb) {
+
+        final float[] fractions = new float[80];
+        final int[] contiguous = new int[80];
+        final int[] strided = new int[160];
+
+        for (int t = 0; t < 2000; t++) {
+
+            final int from = random.nextInt();
+            // equal alpha is evaluated as opaque, by the rgb kernel
+            final int to = argb && t % 4 == 0
+                    ? (from & 0xFF000000) | (random.nextInt() & 0x00FFFFFF)
+                    : random.nextInt();
+            final CCFAnimator animator = argb
+                    ? CCFAnimator.argb(from, to)
+                    : CCFAnimator.rgb(from, to);
+
+            final int length = t % 66;
+            final int fractionsOffset = random.nextInt(fractions.length - length + 1);
+            final int outOffset = random.nextInt(contiguous.length - length + 1);
+
+            for (int i = 0; i < fractions.length; i++) {
+                fractions[i] = random.nextFloat();
+            }
+            if (length > 1) {
+                fractions[fractionsOffset] = .0F;
+                fractions[fractionsOffset + length - 1] = 1.F;
+            }
+
+            animator.getColors(fractions, fractionsOffset, contiguous, outOffset, 1, length);
+            animator.getColors(fractions, fractionsOffset, strided, 1, 2, length);
+
+            for (int i = 0; i < length; i++) {
+                final float fraction = fractions[fractionsOffset + i];
+                final int expected = animator.getColor(fraction);
+                final String message = "from: " + Integer.toHexString(from) + ", to: " + Integer.toHexString(to)
+                        + ", fraction: " + fraction;
+                assertColor("contiguous, " + message, expected, contiguous[outOffset + i]);
+                assertColor("strided, " + message, expected, strided[1 + i * 2]);
+            }
+        }
+    }
+}
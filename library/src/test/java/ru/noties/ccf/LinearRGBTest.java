@@ -0,0 +1,78 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// lookup tables must stay within a channel of exact (double precision) linear light interpolation
+public class LinearRGBTest {
+
+    @Test
+    public void withinOneOfExact() {
+
+        final Random random = new Random(8L);
+
+        for (int t = 0; t < 200; t++) {
+
+            final int from = random.nextInt();
+            final int to = random.nextInt();
+
+            final CCFAnimator animator = CCFAnimator.linearArgb(from, to);
+            final CCFAnimator alpha = CCFAnimator.argb(from, to);
+
+            for (int i = 0; i <= 100; i++) {
+                final float fraction = i / 100.F;
+                final int color = animator.getColor(fraction);
+                assertWithin("fraction: " + fraction, exact(from, to, fraction), color, 1);
+                // alpha is not gamma-encoded
+                assertEquals(alpha.getColor(fraction) >>> 24, color >>> 24);
+            }
+
+            // tables round trip every channel value
+            assertColor("start", CCFAnimator.argb(from, to).getColor(.0F), animator.getColor(.0F));
+            assertColor("end", CCFAnimator.argb(from, to).getColor(1.F), animator.getColor(1.F));
+        }
+    }
+
+    @Test
+    public void rgb_opaque() {
+        final CCFAnimator animator = CCFAnimator.linearRgb(0x00000000, 0x80FFFFFF);
+        assertEquals(0xFF, animator.getColor(.5F) >>> 24);
+        // linear midpoint of black and white is brighter than sRGB midpoint (0x80)
+        assertWithin("middle", 0xFFBCBCBC, animator.getColor(.5F), 1);
+    }
+
+    private static int exact(int from, int to, float fraction) {
+        final int fromAlpha = from >>> 24;
+        final int toAlpha = to >>> 24;
+        final int alpha = fromAlpha != toAlpha
+                ? (int) (fromAlpha + (toAlpha - fromAlpha) * fraction + .5F)
+                : 0xFF;
+        return (alpha << 24)
+                | (channel((from >> 16) & 0xFF, (to >> 16) & 0xFF, fraction) << 16)
+                | (channel((from >> 8) & 0xFF, (to >> 8) & 0xFF, fraction) << 8)
+                | channel(from & 0xFF, to & 0xFF, fraction);
+    }
+
+    private static int channel(int from, int to, double fraction) {
+        final double linear = toLinear(from) + (toLinear(to) - toLinear(from)) * fraction;
+        return (int) (toSRGB(linear) * 255.D + .5D);
+    }
+
+    private static double toLinear(int channel) {
+        final double c = channel / 255.D;
+        return c <= .04045D
+                ? c / 12.92D
+                : Math.pow((c + .055D) / 1.055D, 2.4D);
+    }
+
+    private static double toSRGB(double linear) {
+        return linear <= .0031308D
+                ? linear * 12.92D
+                : 1.055D * Math.pow(linear, 1.D / 2.4D) - .055D;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static ru.noties.ccf.TestUtils.assertColor;
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+// a positioned concat must evaluate the segment that contains a fraction at its local fraction
+public class PositionedConcatTest {
+
+    @Test
+    public void sameAsSegmentGetColor() {
+
+        final Random random = new Random(6L);
+
+        for (int t = 0; t < 50; t++) {
+
+            final int[] colors = new int[2 + random.nextInt(20)];
+            for (int i = 0; i < colors.length; i++) {
+                colors[i] = random.nextInt();
+            }
+
+            final float[] positions = new float[colors.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = random.nextFloat();
+            }
+            Arrays.sort(positions);
+
+            final CCFAnimator[] segments = new CCFAnimator[colors.length - 1];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = CCFAnimator.argb(colors[i], colors[i + 1]);
+            }
+
+            final CCFAnimator animator = CCFAnimator.argb(colors, positions);
+
+            for (int i = 0; i <= 1000; i++) {
+
+                final float fraction = i / 1000.F;
+
+                final int expected;
+                if (fraction <= positions[0]) {
+                    expected = segments[0].getColor(.0F);
+                } else if (fraction >= positions[positions.length - 1]) {
+                    expected = segments[segments.length - 1].getColor(1.F);
+                } else {
+                    // the last segment that starts at or before the fraction (zero width segments are skipped)
+                    int index = 0;
+                    while (index + 1 < segments.length && positions[index + 1] <= fraction) {
+                        index += 1;
+                    }
+                    final float local = (fraction - positions[index]) / (positions[index + 1] - positions[index]);
+                    expected = segments[index].getColor(local);
+                }
+
+                // local fraction is computed with a precomputed `1 / width`, not a division
+                assertWithin("fraction: " + fraction, expected, animator.getColor(fraction), 1);
+            }
+        }
+    }
+
+    @Test
+    public void evenPositions_sameAsConcat() {
+
+        final int[] colors = { 0xFFFF0000, 0x8000FF00, 0xFF0000FF, 0x00FFFFFF, 0xFF000000 };
+        final CCFAnimator positioned = CCFAnimator.argb(colors, new float[] { .0F, .25F, .5F, .75F, 1.F });
+        final CCFAnimator even = CCFAnimator.argb(colors);
+
+        for (int i = 0; i <= 1000; i++) {
+            final float fraction = i / 1000.F;
+            assertWithin("fraction: " + fraction, even.getColor(fraction), positioned.getColor(fraction), 1);
+        }
+    }
+
+    @Test
+    public void clampedOutsideOfPositions() {
+
+        final CCFAnimator animator = CCFAnimator.rgb(new int[] { 0xFFFF0000, 0xFF00FF00 }, new float[] { .2F, .6F });
+
+        assertColor("before", 0xFFFF0000, animator.getColor(.0F));
+        assertColor("first", 0xFFFF0000, animator.getColor(.2F));
+        assertColor("last", 0xFF00FF00, animator.getColor(.6F));
+        assertColor("after", 0xFF00FF00, animator.getColor(1.F));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.noties.ccf;
+
+// Java transcription of Skia's `SkRGBToHSV` and `SkHSVToColor`, which back `android.graphics.Color`
+// on a device (framework methods are not available in JVM unit tests)
+class SkiaColor {
+
+    static void colorToHSV(int color, float[] hsv) {
+
+        final int r = (color >> 16) & 0xFF;
+        final int g = (color >> 8) & 0xFF;
+        final int b = color & 0xFF;
+
+        final int min = Math.min(r, Math.min(g, b));
+        final int max = Math.max(r, Math.max(g, b));
+        final int delta = max - min;
+
+        final float v = max / 255.F;
+
+        if (delta == 0) {
+            hsv[0] = .0F;
+            hsv[1] = .0F;
+            hsv[2] = v;
+            return;
+        }
+
+        final float s = (float) delta / max;
+
+        float h;
+        if (r == max) {
+            h = (float) (g - b) / delta;
+        } else if (g == max) {
+            h = 2.F + (float) (b - r) / delta;
+        } else {
+            h = 4.F + (float) (r - g) / delta;
+        }
+
+        h *= 60.F;
+        if (h < .0F) {
+            h += 360.F;
+        }
+
+        hsv[0] = h;
+        hsv[1] = s;
+        hsv[2] = v;
+    }
+
+    static int hsvToColor(int alpha, float[] hsv) {
+
+        final float s = Math.max(.0F, Math.min(1.F, hsv[1]));
+        final float v = Math.max(.0F, Math.min(1.F, hsv[2]));
+
+        final int vByte = round(v * 255.F);
+
+        // SK_ScalarNearlyZero
+        if (Math.abs(s) <= 1.F / (1 << 12)) {
+            return (alpha << 24) | (vByte << 16) | (vByte << 8) | vByte;
+        }
+
+        final float hx = (hsv[0] < .0F || hsv[0] >= 360.F) ? .0F : hsv[0] / 60.F;
+        final float w = (float) Math.floor(hx);
+        final float f = hx - w;
+
+        final int p = round((1.F - s) * v * 255.F);
+        final int q = round((1.F - (s * f)) * v * 255.F);
+        final int t = round((1.F - (s * (1.F - f))) * v * 255.F);
+
+        final int r;
+        final int g;
+        final int b;
+
+        switch ((int) w) {
+            case 0:
+                r = vByte; g = t; b = p;
+                break;
+            case 1:
+                r = q; g = vByte; b = p;
+                break;
+            case 2:
+                r = p; g = vByte; b = t;
+                break;
+            case 3:
+                r = p; g = q; b = vByte;
+                break;
+            case 4:
+                r = t; g = p; b = vByte;
+                break;
+            default:
+                r = vByte; g = p; b = q;
+                break;
+        }
+
+        return (alpha << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    // SkScalarRoundToInt
+    private static int round(float x) {
+        return (int) Math.floor(x + .5F);
+    }
+
+    private SkiaColor() {}
+}
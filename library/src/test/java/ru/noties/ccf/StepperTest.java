@@ -0,0 +1,66 @@
+package ru.noties.ccf;
+
+import org.junit.Test;
+
+import static ru.noties.ccf.TestUtils.assertWithin;
+
+public class StepperTest {
+
+    private static final int[] COLORS = {
+            0xFFFF0000, 0x8000FF00, 0xFF0000FF, 0x00FFFFFF, 0xFF123456, 0xFFFEDCBA
+    };
+
+    @Test
+    public void rgb() {
+        check(CCFAnimator.rgb(COLORS));
+    }
+
+    @Test
+    public void argb() {
+        check(CCFAnimator.argb(COLORS));
+    }
+
+    @Test
+    public void linearArgb() {
+        check(CCFAnimator.linearArgb(COLORS));
+    }
+
+    @Test
+    public void hsv() {
+        check(CCFAnimator.hsv(COLORS));
+    }
+
+    @Test
+    public void hsvBackwards() {
+        // hue goes from 350 to 10 through 0
+        check(CCFAnimator.hsv(0xFFFF002A, 0xFFFF2A00));
+    }
+
+    @Test
+    public void alpha() {
+        check(CCFAnimator.alpha(0xFF336699, 0));
+    }
+
+    @Test
+    public void positionedNestedConcat() {
+        check(CCFAnimator.concat(
+                new float[] { .0F, .1F, .1F, .75F, 1.F },
+                CCFAnimator.argb(COLORS),
+                CCFAnimator.rgb(0xFF000000, 0xFFFFFFFF),
+                CCFAnimator.hsv(COLORS),
+                CCFAnimator.concat(CCFAnimator.linearRgb(COLORS), CCFAnimator.alpha(0xFF00FF00, 0x40))
+        ));
+    }
+
+    // error must stay bounded for long sweeps (accumulated values are re-anchored)
+    private static void check(CCFAnimator animator) {
+        for (int count : new int[] { 2, 3, 255, 1000, 100003 }) {
+            final float step = 1.F / (count - 1);
+            final CCFAnimator.Stepper stepper = new CCFAnimator.Stepper().reset(animator, .0F, step);
+            for (int i = 0; i < count; i++) {
+                final float fraction = step * i;
+                assertWithin("count: " + count + ", fraction: " + fraction, animator.getColor(fraction), stepper.next(), 1);
+            }
+        }
+    }
+}
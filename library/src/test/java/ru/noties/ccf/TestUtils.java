@@ -0,0 +1,42 @@
+package ru.noties.ccf;
+
+import static org.junit.Assert.fail;
+
+abstract class TestUtils {
+
+    // maximum absolute difference of a channel (alpha included)
+    static int maxChannelDiff(int first, int second) {
+        int max = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            max = Math.max(max, Math.abs(((first >>> shift) & 0xFF) - ((second >>> shift) & 0xFF)));
+        }
+        return max;
+    }
+
+    // `assertEquals` on hex strings would allocate them for each of millions of checked colors
+    static void assertColor(String message, int expected, int actual) {
+        if (expected != actual) {
+            fail(message + ", expected: " + Integer.toHexString(expected) + ", actual: " + Integer.toHexString(actual));
+        }
+    }
+
+    static void assertColors(String message, int[] expected, int[] actual) {
+        if (expected.length != actual.length) {
+            fail(message + ", expected length: " + expected.length + ", actual: " + actual.length);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                assertColor(message + ", index: " + i, expected[i], actual[i]);
+            }
+        }
+    }
+
+    static void assertWithin(String message, int expected, int actual, int tolerance) {
+        if (maxChannelDiff(expected, actual) > tolerance) {
+            fail(message + ", expected: " + Integer.toHexString(expected) + ", actual: " + Integer.toHexString(actual)
+                    + ", tolerance: " + tolerance);
+        }
+    }
+
+    private TestUtils() {}
+}